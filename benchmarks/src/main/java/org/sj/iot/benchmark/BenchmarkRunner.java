@@ -0,0 +1,26 @@
+package org.sj.iot.benchmark;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * 基准测试入口，在JMH命令行参数基础上默认启用GC分析器，输出每次操作的分配字节数与分配速率
+ * <p>
+ * 用法: java -jar target/benchmarks.jar [JMH参数，如: ZipBenchmark -p type=hb]
+ *
+ * @author shijian
+ * @email shijianws@163.com
+ * @date 2026-10-18
+ */
+public class BenchmarkRunner {
+    public static void main(String[] args) throws Exception {
+        Options options = new OptionsBuilder()
+                .parent(new CommandLineOptions(args))
+                .addProfiler(GCProfiler.class)
+                .build();
+        new Runner(options).run();
+    }
+}
@@ -0,0 +1,43 @@
+package org.sj.iot.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import org.sj.iot.model.Cmd;
+import org.sj.iot.util.Constants;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 远程控制命令生成与解密基准测试
+ *
+ * @author shijian
+ * @email shijianws@163.com
+ * @date 2026-10-18
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CmdBenchmark {
+    private Map<String, Object> args;
+    private String encrypted;
+
+    @Setup
+    public void setup() {
+        args = Payloads.cmdArgs();
+        args.remove("dataid"); // createRemoteControl会移除dataid，保证每次调用参数相同
+        encrypted = Payloads.remoteControl().getDataBody().getCmd().getData();
+    }
+
+    @Benchmark
+    public Cmd createRemoteControl() {
+        return Cmd.createRemoteControl("10086", "uuid", "app", Constants.BROADCAST_ID, args);
+    }
+
+    @Benchmark
+    public String decrypt() {
+        return Cmd.decrypt(encrypted);
+    }
+}
@@ -0,0 +1,45 @@
+package org.sj.iot.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.sj.iot.model.Event;
+import org.sj.iot.model.EventListener;
+import org.sj.iot.util.Constants;
+import org.sj.iot.util.JsonUtil;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 事件监听器分发基准测试
+ *
+ * @author shijian
+ * @email shijianws@163.com
+ * @date 2026-10-18
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class EventListenerBenchmark {
+    private EventListener listener;
+    private String path;
+    private String data;
+
+    @Setup
+    public void setup(Blackhole blackhole) {
+        listener = new EventListener();
+        listener.addListener(blackhole::consume, Constants.TCP_SERVER_BROADCAST_MQ_PATH + "/*", Event.Type.ADDED);
+        listener.addListener(blackhole::consume, Constants.TCP_SERVER_UNICAST_MQ_PATH + "/*", Event.Type.ADDED, Event.Type.UPDATED);
+        listener.addListener(blackhole::consume, Constants.DEVICE_GATEWAY_PATH + "/*");
+        listener.addListener(blackhole::consume, Constants.GATEWAY_FIRMWARE_PATH + "/*", Event.Type.REMOVED);
+        path = Constants.TCP_SERVER_UNICAST_MQ_PATH + "/0123456789abcdef";
+        data = JsonUtil.toJsonString(new Event(Event.Type.ADDED, JsonUtil.toJsonByte(Payloads.remoteControl())));
+    }
+
+    @Benchmark
+    public void onData() {
+        listener.onData(path, data);
+    }
+}
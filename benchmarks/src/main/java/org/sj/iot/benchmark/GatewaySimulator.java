@@ -0,0 +1,218 @@
+package org.sj.iot.benchmark;
+
+import org.sj.iot.model.Cmd;
+import org.sj.iot.model.DataBody;
+import org.sj.iot.model.Message;
+import org.sj.iot.model.MessageV2View;
+import org.sj.iot.util.Constants;
+import org.sj.iot.util.JsonUtil;
+import org.sj.iot.util.MessageV2Decoder;
+import org.sj.iot.util.MessageV2Encoder;
+import org.sj.iot.util.ThreadUtil;
+import org.sj.iot.util.Tools;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.SocketChannel;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * 网关集群模拟器，模拟N个网关连接到V2服务端并按固定速率发送心跳与远程控制应答，统计吞吐量与延迟
+ * <p>
+ * 每个网关连接后先发送gateway_info，之后按计划时间发送hb与remote_control应答；
+ * 延迟从计划发送时间开始计算，发送线程落后于计划时排队的时间同样计入延迟，避免协调遗漏(coordinated omission)
+ * <p>
+ * 运行: java -cp target/benchmarks.jar org.sj.iot.benchmark.GatewaySimulator [参数...]
+ * <p>
+ * 参数: [主机，默认127.0.0.1] [端口，默认8888] [网关数，默认1000] [持续秒数，默认60] [每个网关每秒心跳数，默认1] [每个网关每秒应答数，默认0]
+ *
+ * @author shijian
+ * @email shijianws@163.com
+ * @date 2026-10-18
+ */
+public class GatewaySimulator {
+    private static final long BASE_MAC = 0x020000000000L; // 模拟网关的起始MAC，本地管理地址段
+
+    private final InetSocketAddress address; // 服务端地址
+    private final int gateways; // 网关数
+    private final double hbRate; // 每个网关每秒心跳数
+    private final double ackRate; // 每个网关每秒应答数
+
+    private final LatencyHistogram histogram = new LatencyHistogram();
+    private final LongAdder sent = new LongAdder(); // 已发送消息数
+    private final LongAdder received = new LongAdder(); // 已接收响应数
+    private final LongAdder errors = new LongAdder(); // 连接或读写失败数
+    private final byte[] hbData; // 心跳数据体
+    private final byte[] ackData; // 应答数据体
+
+    private volatile boolean running;
+
+    public GatewaySimulator(InetSocketAddress address, int gateways, double hbRate, double ackRate) {
+        this.address = address;
+        this.gateways = gateways;
+        this.hbRate = hbRate;
+        this.ackRate = ackRate;
+        this.hbData = JsonUtil.toJsonByte(DataBody.createCloudMessageByHb(256L << 20, 128L << 20, 4096L << 20, 2048L << 20));
+        this.ackData = JsonUtil.toJsonByte(createAck());
+    }
+
+    private static DataBody createAck() {
+        Map<String, Object> args = new HashMap<>();
+        args.put("cmd", "light_on");
+        args.put("dataid", "1");
+        Cmd cmd = Cmd.createRemoteControl("user", Tools.createUUID(), "gateway", Constants.BROADCAST_ID, args);
+        DataBody dataBody = new DataBody();
+        dataBody.setType(DataBody.REMOTE_CONTROL);
+        dataBody.setAck(Cmd.createAckInfo(cmd.getDataBody().getCmd(), 0, "ok", "{\"state\":1}"));
+        return dataBody;
+    }
+
+    private static DataBody createGatewayInfo(long mac) {
+        DataBody.GatewayInfo info = new DataBody.GatewayInfo();
+        info.setMac(Tools.toHex(mac, 6).toUpperCase());
+        info.setName("simulator");
+        info.setManufacturer("iot-util");
+        info.setSwversion("2.0.0");
+        info.setHwversion("1.0");
+        info.setLightcount(32);
+        info.setServerconnected(1);
+        return new DataBody(info);
+    }
+
+    /**
+     * 运行指定时间后输出统计报告
+     */
+    public void run(long durationSeconds) throws InterruptedException {
+        running = true;
+        ExecutorService executor = ThreadUtil.newThreadPerTaskExecutor("iot-v2-gateway-");
+        long start = System.nanoTime();
+        for (int i = 0; i < gateways; i++) {
+            long mac = BASE_MAC + i;
+            executor.execute(() -> simulate(executor, mac));
+        }
+        long end = start + TimeUnit.SECONDS.toNanos(durationSeconds);
+        for (long now; (now = System.nanoTime()) < end; ) {
+            TimeUnit.NANOSECONDS.sleep(Math.min(end - now, TimeUnit.SECONDS.toNanos(5)));
+            report(System.nanoTime() - start);
+        }
+        running = false;
+        executor.shutdownNow();
+        executor.awaitTermination(5, TimeUnit.SECONDS);
+    }
+
+    private void report(long elapsed) {
+        double seconds = elapsed / 1e9;
+        System.out.printf("%6.1fs 发送: %d, 响应: %d, 错误: %d, 吞吐量: %.0f/s, p50: %.3fms, p99: %.3fms, p999: %.3fms, max: %.3fms%n",
+                seconds, sent.sum(), received.sum(), errors.sum(), received.sum() / seconds,
+                histogram.getValueAtPercentile(50) / 1e6, histogram.getValueAtPercentile(99) / 1e6,
+                histogram.getValueAtPercentile(99.9) / 1e6, histogram.getMax() / 1e6);
+    }
+
+    /**
+     * 模拟一个网关: 发送线程按计划时间发送，读取线程根据消息ID匹配计划发送时间计算延迟
+     */
+    private void simulate(ExecutorService executor, long mac) {
+        AtomicLongArray intended = new AtomicLongArray(256); // 各消息ID的计划发送时间
+        try (SocketChannel ch = SocketChannel.open(address)) {
+            executor.execute(() -> receive(ch, intended));
+            MessageV2Encoder encoder = new MessageV2Encoder(false);
+            byte messageId = 0;
+            long now = System.nanoTime();
+            send(ch, encoder, intended, mac, ++messageId, JsonUtil.toJsonByte(createGatewayInfo(mac)), now);
+            long hbInterval = hbRate > 0 ? (long) (1e9 / hbRate) : Long.MAX_VALUE;
+            long ackInterval = ackRate > 0 ? (long) (1e9 / ackRate) : Long.MAX_VALUE;
+            // 随机错开各网关的首次发送时间
+            long nextHb = now + (long) (Tools.getRandom().nextDouble() * Math.min(hbInterval, TimeUnit.MINUTES.toNanos(1)));
+            long nextAck = now + (long) (Tools.getRandom().nextDouble() * Math.min(ackInterval, TimeUnit.MINUTES.toNanos(1)));
+            while (running) {
+                if (hbInterval == Long.MAX_VALUE && ackInterval == Long.MAX_VALUE) {
+                    LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(100)); // 只保持连接
+                    continue;
+                }
+                boolean hb = hbInterval != Long.MAX_VALUE && (ackInterval == Long.MAX_VALUE || nextHb <= nextAck);
+                long next = hb ? nextHb : nextAck;
+                for (long wait; running && (wait = next - System.nanoTime()) > 0; ) {
+                    LockSupport.parkNanos(wait);
+                }
+                if (++messageId <= 0) {
+                    messageId = 1; // 0保留，不用于匹配响应
+                }
+                send(ch, encoder, intended, mac, messageId, hb ? hbData : ackData, next);
+                // 下一次计划时间基于上一次计划时间，而不是实际发送时间
+                if (hb) {
+                    nextHb += hbInterval;
+                } else {
+                    nextAck += ackInterval;
+                }
+            }
+        } catch (IOException e) {
+            if (running) {
+                errors.increment();
+            }
+        }
+    }
+
+    private void send(SocketChannel ch, MessageV2Encoder encoder, AtomicLongArray intended, long mac, byte messageId, byte[] data, long intendedTime) throws IOException {
+        intended.set(messageId & 0xFF, intendedTime);
+        MessageV2Encoder.write(ch, encoder.encode(mac, messageId, data));
+        sent.increment();
+    }
+
+    private void receive(SocketChannel ch, AtomicLongArray intended) {
+        MessageV2Decoder decoder = new MessageV2Decoder();
+        MessageV2View view = new MessageV2View();
+        ByteBuffer buf = ByteBuffer.allocate(4096);
+        try {
+            while (running) {
+                if (ch.read(buf) < 0) {
+                    break;
+                }
+                long now = System.nanoTime();
+                buf.flip();
+                for (ByteBuffer frame; (frame = decoder.decode(buf)) != null; ) {
+                    Message message = view.wrap(frame);
+                    long start = intended.getAndSet(message.getMessageId() & 0xFF, 0);
+                    if (start != 0) {
+                        histogram.record(now - start);
+                        received.increment();
+                    }
+                }
+                buf.compact();
+                int frameLength = decoder.getFrameLength();
+                if (frameLength > buf.capacity()) { // 响应帧大于缓冲区时扩容，否则缓冲区写满后read始终返回0
+                    ByteBuffer bigger = ByteBuffer.allocate(frameLength);
+                    buf.flip();
+                    buf = bigger.put(buf);
+                }
+            }
+        } catch (Exception e) {
+            if (running) {
+                errors.increment();
+            }
+        }
+    }
+
+    public LatencyHistogram getHistogram() {
+        return histogram;
+    }
+
+    public static void main(String[] args) throws Exception {
+        String host = args.length > 0 ? args[0] : "127.0.0.1";
+        int port = args.length > 1 ? Integer.parseInt(args[1]) : 8888;
+        int gateways = args.length > 2 ? Integer.parseInt(args[2]) : 1000;
+        long duration = args.length > 3 ? Long.parseLong(args[3]) : 60;
+        double hbRate = args.length > 4 ? Double.parseDouble(args[4]) : 1;
+        double ackRate = args.length > 5 ? Double.parseDouble(args[5]) : 0;
+        System.out.printf("模拟网关: %d, 服务端: %s:%d, 心跳: %.2f/s, 应答: %.2f/s, 虚拟线程: %s%n",
+                gateways, host, port, hbRate, ackRate, ThreadUtil.isVirtualThreadSupported());
+        new GatewaySimulator(new InetSocketAddress(host, port), gateways, hbRate, ackRate).run(duration);
+        System.exit(0);
+    }
+}
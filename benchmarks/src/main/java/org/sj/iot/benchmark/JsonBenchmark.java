@@ -0,0 +1,87 @@
+package org.sj.iot.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import org.sj.iot.model.DataBody;
+import org.sj.iot.util.JsonCodec;
+import org.sj.iot.util.JsonUtil;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JsonUtil序列化与反序列化基准测试
+ *
+ * @author shijian
+ * @email shijianws@163.com
+ * @date 2026-10-18
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JsonBenchmark {
+    @Param({"hb", "gateway_info", "remote_control"})
+    public String type;
+
+    private final JsonCodec<DataBody> codec = JsonUtil.codec(DataBody.class);
+    private final JsonCodec<DataBody> strictCodec = JsonUtil.codec(JsonUtil.Profile.STRICT, DataBody.class);
+    @SuppressWarnings("rawtypes")
+    private final JsonCodec<Map> mapCodec = JsonUtil.codec(Map.class);
+    @SuppressWarnings("rawtypes")
+    private final JsonCodec<Map> strictMapCodec = JsonUtil.codec(JsonUtil.Profile.STRICT, Map.class);
+    private DataBody dataBody;
+    private byte[] json;
+
+    @Setup
+    public void setup() {
+        switch (type) {
+            case "hb":
+                dataBody = Payloads.hb();
+                break;
+            case "gateway_info":
+                dataBody = Payloads.gatewayInfo();
+                break;
+            default:
+                dataBody = Payloads.remoteControlAck();
+                break;
+        }
+        json = JsonUtil.toJsonByte(dataBody);
+    }
+
+    @Benchmark
+    public DataBody toObject() {
+        return JsonUtil.toObject(json, DataBody.class);
+    }
+
+    @Benchmark
+    public byte[] toJsonByte() {
+        return JsonUtil.toJsonByte(dataBody);
+    }
+
+    @Benchmark
+    public DataBody codecToObject() {
+        return codec.toObject(json);
+    }
+
+    @Benchmark
+    public byte[] codecToJsonByte() {
+        return codec.toJsonByte(dataBody);
+    }
+
+    @Benchmark
+    public DataBody strictCodecToObject() {
+        return strictCodec.toObject(json);
+    }
+
+    @Benchmark
+    public Map<?, ?> codecToMap() {
+        return mapCodec.toObject(json);
+    }
+
+    @Benchmark
+    public Map<?, ?> strictCodecToMap() {
+        return strictMapCodec.toObject(json);
+    }
+}
@@ -0,0 +1,91 @@
+package org.sj.iot.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import org.sj.iot.model.DataBody;
+import org.sj.iot.model.Message;
+import org.sj.iot.util.Constants;
+import org.sj.iot.util.MessageV2Util;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * MessageV2Util编解码基准测试
+ *
+ * @author shijian
+ * @email shijianws@163.com
+ * @date 2026-10-18
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MessageV2Benchmark {
+    @Param({"64", "4096", "262144"})
+    public int size;
+
+    private long mac;
+    private byte[] data;
+    private DataBody hb;
+    private Message hbMessage;
+    private Message gatewayInfoMessage;
+    private Message largeGatewayInfoMessage; // userdata约为size字节
+
+    @Setup
+    public void setup() {
+        mac = 0xAABBCCDDEEFFL;
+        data = new byte[size];
+        new Random(size).nextBytes(data);
+        hb = Payloads.hb();
+        hbMessage = MessageV2Util.createMessage(Payloads.MAC, (byte) 1, hb);
+        gatewayInfoMessage = MessageV2Util.createMessage(Payloads.MAC, (byte) 1, Payloads.gatewayInfo());
+        largeGatewayInfoMessage = MessageV2Util.createMessage(Payloads.MAC, (byte) 1, Payloads.gatewayInfo(size));
+    }
+
+    @Benchmark
+    public Message createMessage() {
+        return MessageV2Util.createMessage(Payloads.MAC, (byte) 1, hb);
+    }
+
+    @Benchmark
+    public byte getCheckSum() {
+        return MessageV2Util.getCheckSum(Constants.V2.MAGIC_NUMBER, size + Constants.V2.MIN_PACKET_LEN, Constants.V2.VERSION, mac, (byte) 1, data, Constants.V2.STATUS);
+    }
+
+    @Benchmark
+    public DataBody getHb() {
+        return MessageV2Util.get(hbMessage, DataBody.class);
+    }
+
+    @Benchmark
+    public DataBody getGatewayInfo() {
+        return MessageV2Util.get(gatewayInfoMessage, DataBody.class);
+    }
+
+    @Benchmark
+    public String peekHbType() {
+        return MessageV2Util.peekType(hbMessage);
+    }
+
+    @Benchmark
+    public String peekGatewayInfoType() {
+        return MessageV2Util.peekType(gatewayInfoMessage);
+    }
+
+    @Benchmark
+    public DataBody peekGatewayInfo() {
+        return MessageV2Util.peek(gatewayInfoMessage);
+    }
+
+    @Benchmark
+    public DataBody getLargeGatewayInfo() {
+        return MessageV2Util.get(largeGatewayInfoMessage, DataBody.class);
+    }
+
+    @Benchmark
+    public String peekLargeGatewayInfoType() {
+        return MessageV2Util.peekType(largeGatewayInfoMessage);
+    }
+}
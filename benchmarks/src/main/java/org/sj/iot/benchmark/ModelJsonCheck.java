@@ -0,0 +1,184 @@
+package org.sj.iot.benchmark;
+
+import com.fasterxml.jackson.annotation.JsonInclude.Include;
+import com.fasterxml.jackson.core.JsonParser.Feature;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.PropertyNamingStrategy;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.sj.iot.model.Cmd;
+import org.sj.iot.model.DataBody;
+import org.sj.iot.util.JsonUtil;
+
+import java.beans.Introspector;
+import java.beans.PropertyDescriptor;
+import java.lang.reflect.Method;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * ModelJsonModule一致性检查，对比JsonUtil.objectMapper与不注册该模块的同配置ObjectMapper的序列化与反序列化结果，存在差异时以状态码1退出
+ * <p>
+ * 随机对象通过反射给模型类的全部可写属性赋值，模型类新增字段而ModelJsonModule未同步时会因输出缺少该字段而失败。
+ * 修改模型类或ModelJsonModule后运行:
+ * java -cp target/benchmarks.jar org.sj.iot.benchmark.ModelJsonCheck [对象数量，默认20000] [随机种子，默认1]
+ *
+ * @author shijian
+ * @email shijianws@163.com
+ * @date 2026-10-18
+ */
+public class ModelJsonCheck {
+    private static final List<Class<?>> MODEL_TYPES = Arrays.asList(DataBody.class, DataBody.GatewayInfo.class, DataBody.Hb.class,
+            DataBody.FirmwareInfo.class, DataBody.BackupInfo.class, DataBody.RecoveryInfo.class, Cmd.CmdInfo.class, Cmd.AckInfo.class, Cmd.class);
+    private static final String TEXT = "aZ09 _-:/.,{}[]\"'\\\t\n\u0001中文€😀";
+    private static final int MAX_DEPTH = 3;
+
+    private final Random random;
+    private final ObjectMapper reference = createReference();
+    private final Map<Class<?>, PropertyDescriptor[]> properties = new HashMap<>();
+    private int failures;
+
+    private ModelJsonCheck(long seed) {
+        this.random = new Random(seed);
+    }
+
+    public static void main(String[] args) throws Exception {
+        int count = args.length > 0 ? Integer.parseInt(args[0]) : 20000;
+        long seed = args.length > 1 ? Long.parseLong(args[1]) : 1L;
+        ModelJsonCheck check = new ModelJsonCheck(seed);
+        for (int i = 0; i < count && check.failures < 10; i++) {
+            check.check(i % 2 == 0 ? DataBody.class : Cmd.class);
+        }
+        if (check.failures > 0) {
+            System.out.printf("ModelJsonModule与默认序列化不一致: %d 处差异(种子 %d)%n", check.failures, seed);
+            System.exit(1);
+        }
+        System.out.printf("ModelJsonModule与默认序列化一致: %d 个对象(种子 %d)%n", count, seed);
+    }
+
+    /**
+     * 与JsonUtil.objectMapper相同的配置，不注册ModelJsonModule
+     */
+    private static ObjectMapper createReference() {
+        ObjectMapper objectMapper = new ObjectMapper();
+        objectMapper.setPropertyNamingStrategy(PropertyNamingStrategy.SNAKE_CASE);
+        objectMapper.configure(Feature.ALLOW_UNQUOTED_FIELD_NAMES, true);
+        objectMapper.configure(Feature.ALLOW_SINGLE_QUOTES, true);
+        objectMapper.configure(Feature.ALLOW_UNQUOTED_CONTROL_CHARS, true);
+        objectMapper.disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES);
+        objectMapper.configure(SerializationFeature.FAIL_ON_EMPTY_BEANS, false);
+        objectMapper.setSerializationInclusion(Include.NON_EMPTY);
+        return objectMapper;
+    }
+
+    private void check(Class<?> type) throws Exception {
+        Object value = fill(type, 0);
+        String expected = reference.writeValueAsString(value);
+        String actual = JsonUtil.objectMapper.writeValueAsString(value);
+        if (!expected.equals(actual)) {
+            fail("序列化", type, expected, actual);
+            return;
+        }
+        // 反序列化结果统一用reference输出后比较
+        expected = reference.writeValueAsString(reference.readValue(expected, type));
+        actual = reference.writeValueAsString(JsonUtil.objectMapper.readValue(actual, type));
+        if (!expected.equals(actual)) {
+            fail("反序列化", type, expected, actual);
+        }
+    }
+
+    private void fail(String stage, Class<?> type, String expected, String actual) {
+        failures++;
+        System.out.printf("%s %s 不一致%n  期望: %s%n  实际: %s%n", type.getName(), stage, expected, actual);
+    }
+
+    /**
+     * 创建模型对象并随机设置全部可写属性，每个属性约1/5的概率保持null
+     */
+    private Object fill(Class<?> type, int depth) throws Exception {
+        Object value = type.getDeclaredConstructor().newInstance();
+        for (PropertyDescriptor property : properties(type)) {
+            Method setter = property.getWriteMethod();
+            if (setter == null || random.nextInt(5) == 0) {
+                continue;
+            }
+            Object v = randomValue(setter.getParameterTypes()[0], setter.getGenericParameterTypes()[0], depth);
+            if (v != null) {
+                try {
+                    setter.invoke(value, v);
+                } catch (ReflectiveOperationException e) {
+                    // 属性不接受该值时保持默认值
+                }
+            }
+        }
+        return value;
+    }
+
+    private PropertyDescriptor[] properties(Class<?> type) throws Exception {
+        PropertyDescriptor[] result = properties.get(type);
+        if (result == null) {
+            result = Introspector.getBeanInfo(type, Object.class).getPropertyDescriptors();
+            properties.put(type, result);
+        }
+        return result;
+    }
+
+    private Object randomValue(Class<?> type, Type genericType, int depth) throws Exception {
+        if (type == String.class) {
+            return randomString();
+        }
+        if (type == Integer.class || type == int.class) {
+            return random.nextInt(4) == 0 ? 0 : random.nextInt();
+        }
+        if (type == Long.class || type == long.class) {
+            return random.nextInt(4) == 0 ? 0L : random.nextLong();
+        }
+        if (type == Boolean.class || type == boolean.class) {
+            return random.nextBoolean();
+        }
+        if (type == Double.class || type == double.class) {
+            return random.nextDouble();
+        }
+        if (Map.class.isAssignableFrom(type)) {
+            return randomMap(genericType);
+        }
+        if (MODEL_TYPES.contains(type)) {
+            return depth < MAX_DEPTH ? fill(type, depth + 1) : null;
+        }
+        return null; // 非JSON属性(如回调)不赋值
+    }
+
+    private String randomString() {
+        if (random.nextInt(10) == 0) {
+            return "";
+        }
+        StringBuilder sb = new StringBuilder();
+        for (int i = random.nextInt(24); i > 0; i--) {
+            sb.appendCodePoint(TEXT.codePointAt(TEXT.offsetByCodePoints(0, random.nextInt(TEXT.codePointCount(0, TEXT.length())))));
+        }
+        return sb.toString();
+    }
+
+    private Map<String, Object> randomMap(Type genericType) {
+        Type valueType = genericType instanceof ParameterizedType ? ((ParameterizedType) genericType).getActualTypeArguments()[1] : Object.class;
+        Map<String, Object> map = new LinkedHashMap<>();
+        for (int i = random.nextInt(4); i > 0; i--) {
+            Object v;
+            if (random.nextInt(4) == 0) {
+                v = null;
+            } else if (valueType == Long.class) {
+                v = random.nextLong();
+            } else {
+                v = random.nextBoolean() ? randomString() : (Object) random.nextInt(1000);
+            }
+            map.put(randomString(), v);
+        }
+        return map;
+    }
+}
@@ -0,0 +1,125 @@
+package org.sj.iot.benchmark;
+
+import org.sj.iot.model.Cmd;
+import org.sj.iot.model.DataBody;
+import org.sj.iot.util.Constants;
+import org.sj.iot.util.Tools;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * 基准测试使用的典型数据体
+ *
+ * @author shijian
+ * @email shijianws@163.com
+ * @date 2026-10-18
+ */
+final class Payloads {
+    static final String MAC = "AABBCCDDEEFF";
+
+    /**
+     * 通用响应
+     */
+    static DataBody status() {
+        return new DataBody(DataBody.HB, 1508284800L, "ok");
+    }
+
+    /**
+     * 心跳
+     */
+    static DataBody hb() {
+        return DataBody.createCloudMessageByHb(268435456L, 134217728L, 4294967296L, 2147483648L);
+    }
+
+    /**
+     * 网关信息
+     */
+    static DataBody gatewayInfo() {
+        DataBody.GatewayInfo info = new DataBody.GatewayInfo();
+        info.setManufacturer("shijian");
+        info.setName("gateway-living-room");
+        info.setMac(MAC);
+        info.setType(1);
+        info.setInit(1);
+        info.setMode(2);
+        info.setSwversion("2.3.17");
+        info.setHwversion("1.2");
+        info.setChannel(11);
+        info.setNetid(4660);
+        info.setPower(20);
+        info.setUserid(10086);
+        info.setRawuserid(10086);
+        info.setLightcount(48);
+        info.setRadioon(1);
+        info.setWifimode(1);
+        info.setWifissid("home-2.4G");
+        info.setWifipwd("12345678");
+        info.setConnssid("home-2.4G");
+        info.setConnpwd("12345678");
+        info.setAutoupdate(1);
+        info.setAutobackup(1);
+        info.setWgkgilighton(0);
+        info.setWgkgilightsync(0);
+        info.setGeekmode(0);
+        info.setGeekkey("");
+        info.setRemoteenable(1);
+        info.setServerip("10.0.0.1");
+        info.setServerport(8888);
+        info.setMapwidth(1024);
+        info.setMapheight(768);
+        info.setUserdata("{}");
+        info.setServerconnected(1);
+        info.setReserve1(0);
+        info.setReserve2(0);
+        info.setReserve3(0);
+        return new DataBody(info);
+    }
+
+    /**
+     * 网关信息，userdata约为指定长度，用于大数据体
+     */
+    static DataBody gatewayInfo(int userdataSize) {
+        DataBody dataBody = gatewayInfo();
+        StringBuilder sb = new StringBuilder(userdataSize + 64).append('[');
+        for (int i = 0; sb.length() < userdataSize; i++) {
+            sb.append(i == 0 ? "" : ",").append("{\"light\":").append(i).append(",\"x\":").append(i * 37 % 1024).append(",\"y\":").append(i * 53 % 768).append('}');
+        }
+        dataBody.getGatewayInfo().setUserdata(sb.append(']').toString());
+        return dataBody;
+    }
+
+    /**
+     * 远程控制命令参数
+     */
+    static Map<String, Object> cmdArgs() {
+        Map<String, Object> args = new HashMap<>();
+        args.put("cmd", "light_control");
+        args.put("dataid", "1508284800000");
+        args.put("lights", new int[]{1, 2, 3, 4, 5, 6, 7, 8});
+        args.put("brightness", 80);
+        args.put("color", "#FFCC00");
+        return args;
+    }
+
+    /**
+     * 远程控制命令
+     */
+    static Cmd remoteControl() {
+        return Cmd.createRemoteControl("10086", Tools.createUUID(), "app", Constants.BROADCAST_ID, cmdArgs());
+    }
+
+    /**
+     * 远程控制应答
+     */
+    static DataBody remoteControlAck() {
+        DataBody dataBody = new DataBody();
+        dataBody.setType(DataBody.REMOTE_CONTROL);
+        dataBody.setAck(Cmd.createAckInfo(remoteControl().getDataBody().getCmd(), 0, "ok", "{\"lights\":[1,2,3,4,5,6,7,8],\"state\":1}"));
+        dataBody.setUtc(1508284800L);
+        return dataBody;
+    }
+
+    private Payloads() {
+    }
+}
@@ -0,0 +1,38 @@
+package org.sj.iot.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import org.sj.iot.util.Tools;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Tools常用方法基准测试
+ *
+ * @author shijian
+ * @email shijianws@163.com
+ * @date 2026-10-18
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ToolsBenchmark {
+    private long mac = 0xAABBCCDDEEFFL;
+
+    @Benchmark
+    public String createUUID() {
+        return Tools.createUUID();
+    }
+
+    @Benchmark
+    public String toHex() {
+        return Tools.toHex(mac, 6);
+    }
+
+    @Benchmark
+    public long macToLong() {
+        return Tools.macToLong(Payloads.MAC);
+    }
+}
@@ -0,0 +1,57 @@
+package org.sj.iot.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import org.sj.iot.util.JsonUtil;
+import org.sj.iot.util.ZipUtil;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * ZipUtil压缩与解压基准测试，数据为典型DataBody的JSON
+ *
+ * @author shijian
+ * @email shijianws@163.com
+ * @date 2026-10-18
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ZipBenchmark {
+    @Param({"status", "hb", "gateway_info", "remote_control"})
+    public String type;
+
+    private byte[] json;
+    private byte[] zip;
+
+    @Setup
+    public void setup() {
+        switch (type) {
+            case "status":
+                json = JsonUtil.toJsonByte(Payloads.status());
+                break;
+            case "hb":
+                json = JsonUtil.toJsonByte(Payloads.hb());
+                break;
+            case "gateway_info":
+                json = JsonUtil.toJsonByte(Payloads.gatewayInfo());
+                break;
+            default:
+                json = JsonUtil.toJsonByte(Payloads.remoteControlAck());
+                break;
+        }
+        zip = ZipUtil.compress(json);
+    }
+
+    @Benchmark
+    public byte[] compress() {
+        return ZipUtil.compress(json);
+    }
+
+    @Benchmark
+    public byte[] decompress() {
+        return ZipUtil.decompress(zip);
+    }
+}
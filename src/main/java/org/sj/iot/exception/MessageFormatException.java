@@ -0,0 +1,25 @@
+package org.sj.iot.exception;
+
+/**
+ * 报文格式异常，魔数、包长度或校验码不合法
+ *
+ * @author shijian
+ * @email shijianws@163.com
+ * @date 2026-10-18
+ */
+public class MessageFormatException extends RuntimeException {
+    public MessageFormatException() {
+    }
+
+    public MessageFormatException(String message) {
+        super(message);
+    }
+
+    public MessageFormatException(String message, Throwable cause) {
+        super(message, cause);
+    }
+
+    public MessageFormatException(Throwable cause) {
+        super(cause);
+    }
+}
@@ -9,6 +9,8 @@ import java.util.Map;
 
 /**
  * 命令模型
+ * <p>
+ * JSON映射见ModelJsonModule，增删字段时需同步修改并运行benchmarks中的ModelJsonCheck
  *
  * @author shijian
  * @email shijianws@163.com
@@ -325,6 +327,9 @@ public class Cmd {
         return new String(data);
     }
 
+    /**
+     * 命令与应答的公共信息，JSON映射见ModelJsonModule，增删字段时需同步修改并运行benchmarks中的ModelJsonCheck
+     */
     private static abstract class AbstractInfo {
         protected String token; // App与网关通信的凭证，云平台为null
         protected String dataid; // 本次命令数据包的唯一标识，谁发起的命令由谁生成
@@ -393,7 +398,7 @@ public class Cmd {
                     byte[] bs = data.getBytes(Constants.UTF8_CHARSET);
                     byte[] decode = Base64Util.decode(bs); // Base64
                     byte[] xor = xor(decode); // xor
-                    byte[] data = ZipUtil.decompress(xor); // unzip
+                    byte[] data = ZipUtil.decompress(xor, this.unzipDataLength); // unzip，超过原始数据长度立即失败
                     if (data.length == this.unzipDataLength) {
                         return;
                     }
@@ -416,7 +421,7 @@ public class Cmd {
     }
 
     /**
-     * 命令信息
+     * 命令信息，JSON映射见ModelJsonModule，增删字段时需同步修改并运行benchmarks中的ModelJsonCheck
      */
     public static final class CmdInfo extends AbstractInfo {
         private Map<String, Object> cmdMap; // 原始未加密压缩命令参数
@@ -454,7 +459,7 @@ public class Cmd {
     }
 
     /**
-     * 应答信息
+     * 应答信息，JSON映射见ModelJsonModule，增删字段时需同步修改并运行benchmarks中的ModelJsonCheck
      */
     public static final class AckInfo extends AbstractInfo {
         private Integer result;
@@ -2,6 +2,8 @@ package org.sj.iot.model;
 
 /**
  * TCP数据体->消息数据体模型
+ * <p>
+ * JSON映射见ModelJsonModule，增删字段时需同步修改并运行benchmarks中的ModelJsonCheck
  *
  * @author shijian
  * @email shijianws@163.com
@@ -171,6 +173,9 @@ public class DataBody {
     public static final String DATAFILE_RECOVERY = "datafile_recovery";
     public static final String NEWDEVICES = "newdevices";
 
+    /**
+     * 网关信息，JSON映射见ModelJsonModule，增删字段时需同步修改并运行benchmarks中的ModelJsonCheck
+     */
     public static class GatewayInfo {
         private String manufacturer;
         private String name;
@@ -602,6 +607,9 @@ public class DataBody {
         }
     }
 
+    /**
+     * 心跳信息，JSON映射见ModelJsonModule，增删字段时需同步修改并运行benchmarks中的ModelJsonCheck
+     */
     public static class Hb {
         private Long totalram; // 网关设备总内存
         private Long freeram; // 网关设备空闲内存
@@ -668,6 +676,9 @@ public class DataBody {
     interface Ext {
     }
 
+    /**
+     * 数据文件备份信息，JSON映射见ModelJsonModule，增删字段时需同步修改并运行benchmarks中的ModelJsonCheck
+     */
     public static final class BackupInfo implements Ext {
         private String backupUrl;
 
@@ -680,6 +691,9 @@ public class DataBody {
         }
     }
 
+    /**
+     * 数据文件恢复信息，JSON映射见ModelJsonModule，增删字段时需同步修改并运行benchmarks中的ModelJsonCheck
+     */
     public static final class RecoveryInfo implements Ext {
         private String recoveryUrl;
         private String recoveryMd5;
@@ -701,6 +715,9 @@ public class DataBody {
         }
     }
 
+    /**
+     * 固件升级信息，JSON映射见ModelJsonModule，增删字段时需同步修改并运行benchmarks中的ModelJsonCheck
+     */
     public static final class FirmwareInfo implements Ext {
         private String firmwareUrl; // 固件包地址
         private String firmwareMd5; // 固件包MD5
@@ -36,6 +36,14 @@ public interface Message {
 
     DataBody getDataBody();
 
+    /**
+     * 获取数据体的消息类型，MessageV2与MessageV2View在未解析数据体时只读取type字段而不解析完整数据体
+     */
+    default String getDataBodyType() {
+        DataBody body = getDataBody();
+        return body == null ? null : body.getType();
+    }
+
     byte getStatus();
 
     void setStatus(byte status);
@@ -1,5 +1,6 @@
 package org.sj.iot.model;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import org.sj.iot.util.MessageV2Util;
 import org.sj.iot.util.Tools;
 
@@ -20,6 +21,7 @@ public class MessageV2 implements Message {
     private byte messageId; // 消息ID, 1个字节，上行指令,服务端原值返回，下行指令,远程设备原值返回
     private byte[] data; // 数据体，变长
     private DataBody dataBody; // 云端数据体
+    private String dataBodyType; // 消息类型，未解析数据体时单独读取
     private byte status; // 状态，1个字节
     private byte checkSum; // 校验码，1个字节，从version到MessageId的总字节的逐个异或值
 
@@ -108,6 +110,18 @@ public class MessageV2 implements Message {
         return dataBody;
     }
 
+    @JsonIgnore
+    @Override
+    public String getDataBodyType() {
+        if (dataBody != null) {
+            return dataBody.getType();
+        }
+        if (dataBodyType == null && data != null && data.length > 0) {
+            dataBodyType = MessageV2Util.peekType(this);
+        }
+        return dataBodyType;
+    }
+
     @Override
     public void setData(byte[] data) {
         this.data = data;
@@ -0,0 +1,213 @@
+package org.sj.iot.model;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import org.sj.iot.util.Constants;
+import org.sj.iot.util.MessageV2Util;
+import org.sj.iot.util.Tools;
+
+import java.nio.ByteBuffer;
+
+/**
+ * 基于帧缓冲区的只读消息视图，按固定偏移量直接读取报文字段
+ * <p>
+ * 一个实例可通过wrap在多个帧之间复用，macHex、dataBody与dataBodyType在首次访问时才计算；
+ * 视图在底层缓冲区被覆盖之前有效，需要跨帧保存时调用toMessage()复制为MessageV2
+ *
+ * @author shijian
+ * @email shijianws@163.com
+ * @date 2026-10-18
+ */
+public class MessageV2View implements Message {
+    private ByteBuffer buf; // 帧缓冲区
+    private int offset; // 帧在缓冲区中的起始位置
+    private int length; // 帧总长度
+
+    private String macHex; // mac的字符串表现形式，延迟计算
+    private DataBody dataBody; // 云端数据体，延迟解析
+    private String dataBodyType; // 消息类型，未解析数据体时单独读取
+
+    public MessageV2View() {
+    }
+
+    public MessageV2View(ByteBuffer frame) {
+        wrap(frame);
+    }
+
+    /**
+     * 绑定到新的帧，帧为frame的position到limit部分，不改变frame的position
+     */
+    public MessageV2View wrap(ByteBuffer frame) {
+        int remaining = frame.remaining();
+        if (remaining < Constants.V2.HEADER_LEN + Constants.V2.CHECK_SUM_LEN) {
+            throw new IllegalArgumentException("帧长度不足: " + remaining);
+        }
+        this.buf = frame;
+        this.offset = frame.position();
+        this.length = remaining;
+        this.macHex = null;
+        this.dataBody = null;
+        this.dataBodyType = null;
+        return this;
+    }
+
+    @Override
+    public int getMagic() {
+        return buf.getInt(offset + Constants.V2.MAGIC_OFFSET);
+    }
+
+    @Override
+    public int getPacketLength() {
+        return buf.getInt(offset + Constants.V2.PACKET_LEN_OFFSET);
+    }
+
+    @Override
+    public byte getVersion() {
+        return buf.get(offset + Constants.V2.VERSION_OFFSET);
+    }
+
+    @Override
+    public long getMac() {
+        int index = offset + Constants.V2.MAC_OFFSET;
+        return (buf.getShort(index) & 0xFFFFL) << 32 | buf.getInt(index + 2) & 0xFFFFFFFFL;
+    }
+
+    @Override
+    public String getMacHex() {
+        String macHex = this.macHex;
+        if (macHex == null) {
+            this.macHex = macHex = Tools.toHex(getMac(), Constants.V2.MAC_LEN).toUpperCase();
+        }
+        return macHex;
+    }
+
+    @Override
+    public byte getMessageId() {
+        return buf.get(offset + Constants.V2.MESSAGE_ID_OFFSET);
+    }
+
+    @Override
+    public byte getStatus() {
+        return buf.get(offset + Constants.V2.STATUS_OFFSET);
+    }
+
+    @Override
+    public byte getCheckSum() {
+        return buf.get(offset + length - Constants.V2.CHECK_SUM_LEN);
+    }
+
+    /**
+     * 获取数据体长度
+     */
+    public int getDataLength() {
+        return length - Constants.V2.HEADER_LEN - Constants.V2.CHECK_SUM_LEN;
+    }
+
+    /**
+     * 获取数据体的只读切片，不拷贝数据
+     */
+    public ByteBuffer getDataBuffer() {
+        ByteBuffer dup = buf.asReadOnlyBuffer();
+        int start = offset + Constants.V2.DATA_OFFSET;
+        dup.limit(start + getDataLength());
+        dup.position(start);
+        return dup.slice();
+    }
+
+    /**
+     * 拷贝一份数据体，只需读取报文头的场景不应调用
+     */
+    @Override
+    public byte[] getData() {
+        byte[] data = new byte[getDataLength()];
+        ByteBuffer dup = buf.duplicate();
+        dup.position(offset + Constants.V2.DATA_OFFSET);
+        dup.get(data);
+        return data;
+    }
+
+    @Override
+    public DataBody getDataBody() {
+        if (dataBody == null && getDataLength() > 0) {
+            dataBody = MessageV2Util.get(this, DataBody.class);
+        }
+        return dataBody;
+    }
+
+    @JsonIgnore
+    @Override
+    public String getDataBodyType() {
+        if (dataBody != null) {
+            return dataBody.getType();
+        }
+        if (dataBodyType == null && getDataLength() > 0) {
+            dataBodyType = MessageV2Util.peekType(this);
+        }
+        return dataBodyType;
+    }
+
+    /**
+     * 复制为可脱离底层缓冲区保存的消息对象
+     */
+    public MessageV2 toMessage() {
+        return new MessageV2(getMagic(), getPacketLength(), getVersion(), getMac(), getMessageId(), getData(), getStatus(), getCheckSum());
+    }
+
+    @Override
+    public void setMagic(int magic) {
+        throw unsupported();
+    }
+
+    @Override
+    public void setPacketLength(int packetLength) {
+        throw unsupported();
+    }
+
+    @Override
+    public void setVersion(byte version) {
+        throw unsupported();
+    }
+
+    @Override
+    public void setMac(long mac) {
+        throw unsupported();
+    }
+
+    @Override
+    public void setMessageId(byte messageId) {
+        throw unsupported();
+    }
+
+    @Override
+    public void setData(byte[] data) {
+        throw unsupported();
+    }
+
+    @Override
+    public void setStatus(byte status) {
+        throw unsupported();
+    }
+
+    @Override
+    public void setCheckSum(byte checkSum) {
+        throw unsupported();
+    }
+
+    private static UnsupportedOperationException unsupported() {
+        return new UnsupportedOperationException("只读消息视图不允许修改!");
+    }
+
+    @Override
+    public String toString() {
+        final StringBuilder sb = new StringBuilder("MessageV2View{");
+        sb.append("magic=").append(getMagic());
+        sb.append(", packetLength=").append(getPacketLength());
+        sb.append(", version=").append(getVersion());
+        sb.append(", mac=").append(getMacHex());
+        sb.append(", messageId=").append(getMessageId());
+        sb.append(", data=").append("[...]");
+        sb.append(", status=").append(getStatus());
+        sb.append(", checkSum=").append(getCheckSum());
+        sb.append('}');
+        return sb.toString();
+    }
+}
@@ -0,0 +1,82 @@
+package org.sj.iot.server;
+
+import java.nio.ByteBuffer;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 读缓冲区池，连接只在有未处理数据时持有缓冲区，空闲连接不占用缓冲区
+ *
+ * @author shijian
+ * @email shijianws@163.com
+ * @date 2026-10-18
+ */
+public class BufferPool {
+    private final Queue<ByteBuffer> pool = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger size = new AtomicInteger(); // 池中缓冲区数量
+    private final int bufferSize; // 缓冲区大小
+    private final int maxPooled; // 池中最多缓存的缓冲区数量
+    private final boolean direct; // 是否使用堆外缓冲区
+
+    public BufferPool(int bufferSize, int maxPooled, boolean direct) {
+        if (bufferSize <= 0) {
+            throw new IllegalArgumentException("缓冲区大小必须大于0!");
+        }
+        this.bufferSize = bufferSize;
+        this.maxPooled = maxPooled;
+        this.direct = direct;
+    }
+
+    /**
+     * 获取一个写模式的空缓冲区
+     */
+    public ByteBuffer acquire() {
+        ByteBuffer buf = pool.poll();
+        if (buf != null) {
+            size.decrementAndGet();
+            return buf;
+        }
+        return direct ? ByteBuffer.allocateDirect(bufferSize) : ByteBuffer.allocate(bufferSize);
+    }
+
+    /**
+     * 归还缓冲区，非本池大小的缓冲区或池已满时丢弃
+     */
+    public void release(ByteBuffer buf) {
+        if (buf == null || buf.capacity() != bufferSize || buf.isDirect() != direct) {
+            return;
+        }
+        if (size.incrementAndGet() > maxPooled) {
+            size.decrementAndGet();
+            return;
+        }
+        buf.clear();
+        pool.offer(buf);
+    }
+
+    /**
+     * 整理compact之后的缓冲区: 无数据时归还到池中并返回null，当前帧超出缓冲区容量时扩容
+     *
+     * @param buf         写模式缓冲区
+     * @param frameLength 当前未读取完整的帧长度，未知时为-1
+     */
+    public ByteBuffer trim(ByteBuffer buf, int frameLength) {
+        if (buf.position() == 0) {
+            release(buf);
+            return null;
+        }
+        if (frameLength > buf.capacity()) {
+            ByteBuffer bigger = direct ? ByteBuffer.allocateDirect(frameLength) : ByteBuffer.allocate(frameLength);
+            buf.flip();
+            bigger.put(buf);
+            release(buf);
+            return bigger;
+        }
+        return buf;
+    }
+
+    public int getBufferSize() {
+        return bufferSize;
+    }
+}
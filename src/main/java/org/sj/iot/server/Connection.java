@@ -0,0 +1,62 @@
+package org.sj.iot.server;
+
+import org.sj.iot.model.DataBody;
+import org.sj.iot.model.Message;
+import org.sj.iot.util.JsonUtil;
+import org.sj.iot.util.MessageV2Util;
+
+import java.io.Closeable;
+import java.net.SocketAddress;
+
+/**
+ * 网关TCP连接
+ *
+ * @author shijian
+ * @email shijianws@163.com
+ * @date 2026-10-18
+ */
+public interface Connection extends Closeable {
+    /**
+     * 发送消息，可在任意线程调用
+     */
+    void send(Message message);
+
+    /**
+     * 使用连接级压缩上下文压缩数据体并发送，可在任意线程调用；未启用连接级压缩时按普通消息发送
+     * <p>
+     * 压缩与入队原子执行，保证压缩顺序与发送顺序一致；压缩可能在调用返回后才执行，发送前不能修改data
+     */
+    default void sendCompressed(long mac, byte messageId, byte[] data) {
+        send(MessageV2Util.createMessage(mac, messageId, data));
+    }
+
+    /**
+     * 使用连接级压缩上下文压缩数据体并发送，可在任意线程调用
+     */
+    default void sendCompressed(long mac, byte messageId, DataBody dataBody) {
+        sendCompressed(mac, messageId, JsonUtil.toJsonByte(dataBody));
+    }
+
+    /**
+     * 获取远程地址
+     */
+    SocketAddress getRemoteAddress();
+
+    /**
+     * 连接是否打开
+     */
+    boolean isOpen();
+
+    /**
+     * 关闭连接，可在任意线程调用
+     */
+    @Override
+    void close();
+
+    /**
+     * 获取当前线程正在处理消息的连接，只在Processable.process调用期间有效
+     */
+    static Connection current() {
+        return ConnectionContext.get();
+    }
+}
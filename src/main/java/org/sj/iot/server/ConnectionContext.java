@@ -0,0 +1,27 @@
+package org.sj.iot.server;
+
+/**
+ * 当前线程处理消息的连接
+ *
+ * @author shijian
+ * @email shijianws@163.com
+ * @date 2026-10-18
+ */
+final class ConnectionContext {
+    private static final ThreadLocal<Connection> CURRENT = new ThreadLocal<>();
+
+    static Connection get() {
+        return CURRENT.get();
+    }
+
+    static void set(Connection connection) {
+        CURRENT.set(connection);
+    }
+
+    static void remove() {
+        CURRENT.remove();
+    }
+
+    private ConnectionContext() {
+    }
+}
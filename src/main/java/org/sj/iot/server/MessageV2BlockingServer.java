@@ -0,0 +1,317 @@
+package org.sj.iot.server;
+
+import org.sj.iot.exception.MessageFormatException;
+import org.sj.iot.model.Message;
+import org.sj.iot.model.MessageV2View;
+import org.sj.iot.model.Processable;
+import org.sj.iot.util.Constants;
+import org.sj.iot.util.MessageV2Decoder;
+import org.sj.iot.util.MessageV2Encoder;
+import org.sj.iot.util.MessageV2FrameSync;
+import org.sj.iot.util.MessageV2StreamCodec;
+import org.sj.iot.util.MessageV2Util;
+import org.sj.iot.util.ThreadUtil;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.SocketAddress;
+import java.net.StandardSocketOptions;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * V2协议阻塞式参考服务端，每个连接一个线程，JDK21及以上使用虚拟线程，低版本JDK回退为平台线程
+ * <p>
+ * 空闲连接只持有一个很小的等待缓冲区，收到数据后才从池中获取读缓冲区，适合大量只发送心跳的空闲网关；
+ * 消息以只读视图MessageV2View交给处理器，视图只在process调用期间有效，处理器可以阻塞
+ *
+ * @author shijian
+ * @email shijianws@163.com
+ * @date 2026-10-18
+ */
+public class MessageV2BlockingServer implements Closeable {
+    private static final Logger LOGGER = LoggerFactory.getLogger(MessageV2BlockingServer.class);
+
+    private static final int IDLE_BUFFER_SIZE = Constants.V2.HEADER_LEN; // 空闲连接等待数据的缓冲区大小
+
+    private final InetSocketAddress address; // 监听地址
+    private final Processable<Message> processor; // 消息处理器
+    private int bufferSize = 16 * 1024; // 读缓冲区大小
+    private int maxPacketLength = Constants.V2.MAX_PACKET_LEN; // 允许的最大包长度
+    private boolean frameSync = true; // 遇到非法数据时是否重新同步，false则关闭连接
+    private boolean streamCompression; // 是否为每个连接创建连接级压缩上下文
+
+    private ServerSocketChannel serverChannel;
+    private ExecutorService executor;
+    private BufferPool bufferPool;
+    private final Map<BlockingConnection, Boolean> connections = new ConcurrentHashMap<>(); // 当前连接
+    private volatile boolean running;
+
+    public MessageV2BlockingServer(int port, Processable<Message> processor) {
+        this(new InetSocketAddress(port), processor);
+    }
+
+    public MessageV2BlockingServer(InetSocketAddress address, Processable<Message> processor) {
+        if (processor == null) {
+            throw new IllegalArgumentException("消息处理器不能为空!");
+        }
+        this.address = address;
+        this.processor = processor;
+    }
+
+    public void setBufferSize(int bufferSize) {
+        this.bufferSize = bufferSize;
+    }
+
+    public void setMaxPacketLength(int maxPacketLength) {
+        this.maxPacketLength = maxPacketLength;
+    }
+
+    public void setFrameSync(boolean frameSync) {
+        this.frameSync = frameSync;
+    }
+
+    /**
+     * 启用连接级压缩上下文，带STATUS_STREAM标志的帧在交给处理器前按顺序解压，处理器收到的是数据体未压缩的消息；
+     * 发送时通过Connection.sendCompressed压缩
+     */
+    public void setStreamCompression(boolean streamCompression) {
+        this.streamCompression = streamCompression;
+    }
+
+    /**
+     * 启动服务
+     */
+    public synchronized MessageV2BlockingServer start() throws IOException {
+        if (running) {
+            throw new IllegalStateException("服务已启动!");
+        }
+        bufferPool = new BufferPool(bufferSize, Math.max(Runtime.getRuntime().availableProcessors() * 64, 256), true);
+        serverChannel = ServerSocketChannel.open();
+        serverChannel.setOption(StandardSocketOptions.SO_REUSEADDR, true);
+        serverChannel.bind(address, 1024);
+        executor = ThreadUtil.newThreadPerTaskExecutor("iot-v2-conn-");
+        running = true;
+        Thread acceptor = new Thread(this::accept, "iot-v2-acceptor");
+        acceptor.start();
+        if (LOGGER.isInfoEnabled()) {
+            LOGGER.info("V2阻塞服务端已启动: {}, 虚拟线程: {}", serverChannel.getLocalAddress(), ThreadUtil.isVirtualThreadSupported());
+        }
+        return this;
+    }
+
+    /**
+     * 获取实际监听端口，绑定端口为0时可通过此方法获取
+     */
+    public int getLocalPort() {
+        return serverChannel.socket().getLocalPort();
+    }
+
+    /**
+     * 获取当前连接数
+     */
+    public int getConnectionCount() {
+        return connections.size();
+    }
+
+    private void accept() {
+        while (running) {
+            try {
+                SocketChannel ch = serverChannel.accept();
+                ch.setOption(StandardSocketOptions.TCP_NODELAY, true);
+                BlockingConnection conn = new BlockingConnection(ch);
+                connections.put(conn, Boolean.TRUE);
+                executor.execute(conn::serve);
+            } catch (ClosedChannelException e) {
+                break;
+            } catch (Exception e) {
+                if (LOGGER.isErrorEnabled()) {
+                    LOGGER.error("接收连接失败: {}", e.getMessage());
+                }
+            }
+        }
+    }
+
+    @Override
+    public synchronized void close() {
+        if (!running) {
+            return;
+        }
+        running = false;
+        MessageV2Server.closeQuietly(serverChannel);
+        for (BlockingConnection conn : connections.keySet()) {
+            conn.close();
+        }
+        executor.shutdown();
+        try {
+            executor.awaitTermination(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * 阻塞连接，读取在连接所属线程中执行，写出在调用线程中加锁执行
+     */
+    private final class BlockingConnection implements Connection {
+        private final SocketChannel ch;
+        private final ReentrantLock writeLock = new ReentrantLock(); // 虚拟线程中使用synchronized会占用载体线程
+        private MessageV2Encoder encoder; // 首次发送时创建
+        private final MessageV2StreamCodec streamCodec; // 连接级压缩上下文，未启用时为null
+
+        BlockingConnection(SocketChannel ch) {
+            this.ch = ch;
+            this.streamCodec = streamCompression ? new MessageV2StreamCodec() : null;
+        }
+
+        void serve() {
+            MessageV2Decoder decoder = new MessageV2Decoder(maxPacketLength, frameSync ? new MessageV2FrameSync(maxPacketLength) : null);
+            MessageV2View view = new MessageV2View();
+            ByteBuffer idle = ByteBuffer.allocate(IDLE_BUFFER_SIZE);
+            ByteBuffer buf = null; // 有未处理数据时持有的读缓冲区
+            ConnectionContext.set(this);
+            try {
+                for (; ; ) {
+                    if (buf == null) {
+                        // 空闲时阻塞在小缓冲区上，收到数据后再获取读缓冲区
+                        idle.clear();
+                        if (ch.read(idle) < 0) {
+                            break;
+                        }
+                        idle.flip();
+                        buf = bufferPool.acquire();
+                        buf.put(idle);
+                    } else if (ch.read(buf) < 0) {
+                        break;
+                    }
+                    buf.flip();
+                    for (ByteBuffer frame; (frame = decoder.decode(buf)) != null; ) {
+                        Message message = view.wrap(frame);
+                        if (streamCodec != null) {
+                            try {
+                                message = streamCodec.decompress(message);
+                            } catch (RuntimeException e) {
+                                // 上下文已失去同步，后续帧都无法解压
+                                throw new MessageFormatException("连接级压缩上下文解压失败!", e);
+                            }
+                        }
+                        try {
+                            processor.process(message);
+                        } catch (Exception e) {
+                            if (LOGGER.isErrorEnabled()) {
+                                LOGGER.error("处理消息失败: {}", e.getMessage(), e);
+                            }
+                        }
+                    }
+                    buf.compact();
+                    buf = bufferPool.trim(buf, decoder.getFrameLength());
+                }
+            } catch (MessageFormatException e) {
+                if (LOGGER.isWarnEnabled()) {
+                    LOGGER.warn("{}: 非法数据包, 关闭连接: {}", getRemoteAddress(), e.getMessage());
+                }
+            } catch (IOException e) {
+                if (running && LOGGER.isDebugEnabled()) {
+                    LOGGER.debug("{}: 读取数据失败: {}", getRemoteAddress(), e.getMessage());
+                }
+            } finally {
+                ConnectionContext.remove();
+                bufferPool.release(buf);
+                close();
+                if (streamCodec != null) {
+                    // 其它线程可能正在sendCompressed中使用压缩流
+                    writeLock.lock();
+                    try {
+                        streamCodec.close();
+                    } finally {
+                        writeLock.unlock();
+                    }
+                }
+            }
+        }
+
+        @Override
+        public void send(Message message) {
+            writeLock.lock();
+            try {
+                if (encoder == null) {
+                    encoder = new MessageV2Encoder(false);
+                }
+                MessageV2Encoder.write(ch, encoder.encode(message));
+            } catch (IOException e) {
+                close();
+            } finally {
+                writeLock.unlock();
+            }
+        }
+
+        @Override
+        public void sendCompressed(long mac, byte messageId, byte[] data) {
+            if (streamCodec == null) {
+                Connection.super.sendCompressed(mac, messageId, data);
+                return;
+            }
+            // 压缩与写出在同一把锁内执行，保证压缩顺序与发送顺序一致
+            writeLock.lock();
+            try {
+                if (!ch.isOpen()) {
+                    return;
+                }
+                Message message;
+                try {
+                    message = streamCodec.createMessage(mac, messageId, data);
+                } catch (RuntimeException e) {
+                    close(); // 压缩上下文状态未知，对端无法再同步解压
+                    return;
+                }
+                send(message);
+            } finally {
+                writeLock.unlock();
+            }
+        }
+
+        @Override
+        public SocketAddress getRemoteAddress() {
+            try {
+                return ch.getRemoteAddress();
+            } catch (IOException e) {
+                return null;
+            }
+        }
+
+        @Override
+        public boolean isOpen() {
+            return ch.isOpen();
+        }
+
+        @Override
+        public void close() {
+            connections.remove(this);
+            MessageV2Server.closeQuietly(ch);
+        }
+    }
+
+    /**
+     * 在本机回环地址启动阻塞参考服务端，对每个请求返回通用响应，用于压测与调优
+     * <p>
+     * 参数: [端口，默认8888]
+     */
+    public static void main(String[] args) throws Exception {
+        int port = args.length > 0 ? Integer.parseInt(args[0]) : 8888;
+        MessageV2BlockingServer server = new MessageV2BlockingServer(new InetSocketAddress("127.0.0.1", port), message -> {
+            Connection.current().send(MessageV2Util.responseOK(message));
+        });
+        server.start();
+        Runtime.getRuntime().addShutdownHook(new Thread(server::close));
+    }
+}
@@ -0,0 +1,500 @@
+package org.sj.iot.server;
+
+import org.sj.iot.exception.MessageFormatException;
+import org.sj.iot.model.Message;
+import org.sj.iot.model.MessageV2View;
+import org.sj.iot.model.Processable;
+import org.sj.iot.util.Constants;
+import org.sj.iot.util.MessageV2Decoder;
+import org.sj.iot.util.MessageV2Encoder;
+import org.sj.iot.util.MessageV2FrameSync;
+import org.sj.iot.util.MessageV2StreamCodec;
+import org.sj.iot.util.MessageV2Util;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.SocketAddress;
+import java.net.StandardSocketOptions;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.util.Iterator;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * V2协议NIO参考服务端，每个CPU核心一个Selector线程，连接按轮询分配到各Selector线程
+ * <p>
+ * 消息以只读视图MessageV2View交给处理器，视图只在process调用期间有效，需要异步处理时调用toMessage()复制；
+ * 处理器在Selector线程中执行，不能阻塞，可通过Connection.current()获取当前连接发送响应
+ *
+ * @author shijian
+ * @email shijianws@163.com
+ * @date 2026-10-18
+ */
+public class MessageV2Server implements Closeable {
+    private static final Logger LOGGER = LoggerFactory.getLogger(MessageV2Server.class);
+    private static final long ACCEPT_BACKOFF_MILLIS = 100; // 接收连接失败后的等待时间
+
+    private final InetSocketAddress address; // 监听地址
+    private final Processable<Message> processor; // 消息处理器
+    private int threads = Runtime.getRuntime().availableProcessors(); // Selector线程数
+    private int bufferSize = 16 * 1024; // 读缓冲区大小
+    private int maxPacketLength = Constants.V2.MAX_PACKET_LEN; // 允许的最大包长度
+    private boolean frameSync = true; // 遇到非法数据时是否重新同步，false则关闭连接
+    private boolean streamCompression; // 是否为每个连接创建连接级压缩上下文
+
+    private ServerSocketChannel serverChannel;
+    private EventLoop[] loops;
+    private Thread acceptor;
+    private BufferPool bufferPool;
+    private final AtomicInteger connections = new AtomicInteger(); // 当前连接数
+    private volatile boolean running;
+
+    public MessageV2Server(int port, Processable<Message> processor) {
+        this(new InetSocketAddress(port), processor);
+    }
+
+    public MessageV2Server(InetSocketAddress address, Processable<Message> processor) {
+        if (processor == null) {
+            throw new IllegalArgumentException("消息处理器不能为空!");
+        }
+        this.address = address;
+        this.processor = processor;
+    }
+
+    public void setThreads(int threads) {
+        this.threads = threads;
+    }
+
+    public void setBufferSize(int bufferSize) {
+        this.bufferSize = bufferSize;
+    }
+
+    public void setMaxPacketLength(int maxPacketLength) {
+        this.maxPacketLength = maxPacketLength;
+    }
+
+    public void setFrameSync(boolean frameSync) {
+        this.frameSync = frameSync;
+    }
+
+    /**
+     * 启用连接级压缩上下文，带STATUS_STREAM标志的帧在交给处理器前按顺序解压，处理器收到的是数据体未压缩的消息；
+     * 发送时通过Connection.sendCompressed压缩
+     */
+    public void setStreamCompression(boolean streamCompression) {
+        this.streamCompression = streamCompression;
+    }
+
+    /**
+     * 启动服务
+     */
+    public synchronized MessageV2Server start() throws IOException {
+        if (running) {
+            throw new IllegalStateException("服务已启动!");
+        }
+        bufferPool = new BufferPool(bufferSize, Math.max(threads * 64, 256), true);
+        serverChannel = ServerSocketChannel.open();
+        serverChannel.setOption(StandardSocketOptions.SO_REUSEADDR, true);
+        serverChannel.bind(address, 1024);
+        loops = new EventLoop[threads];
+        for (int i = 0; i < threads; i++) {
+            loops[i] = new EventLoop(i);
+        }
+        running = true;
+        for (EventLoop loop : loops) {
+            loop.thread.start();
+        }
+        acceptor = new Thread(this::accept, "iot-v2-acceptor");
+        acceptor.start();
+        if (LOGGER.isInfoEnabled()) {
+            LOGGER.info("V2服务端已启动: {}, Selector线程数: {}", serverChannel.getLocalAddress(), threads);
+        }
+        return this;
+    }
+
+    /**
+     * 获取实际监听端口，绑定端口为0时可通过此方法获取
+     */
+    public int getLocalPort() {
+        return serverChannel.socket().getLocalPort();
+    }
+
+    /**
+     * 获取当前连接数
+     */
+    public int getConnectionCount() {
+        return connections.get();
+    }
+
+    private void accept() {
+        int next = 0;
+        while (running) {
+            SocketChannel ch = null;
+            try {
+                ch = serverChannel.accept();
+                ch.configureBlocking(false);
+                ch.setOption(StandardSocketOptions.TCP_NODELAY, true);
+                EventLoop loop = loops[next];
+                next = (next + 1) % loops.length;
+                loop.register(ch);
+            } catch (IOException e) {
+                if (!serverChannel.isOpen()) {
+                    break; // 服务已关闭
+                }
+                if (ch != null) {
+                    closeQuietly(ch);
+                }
+                if (LOGGER.isErrorEnabled()) {
+                    LOGGER.error("接收连接失败: {}", e.getMessage());
+                }
+                backoff(); // 如文件描述符耗尽时accept立即失败，避免空转刷日志
+            } catch (RuntimeException e) {
+                if (ch != null) {
+                    closeQuietly(ch);
+                }
+                if (LOGGER.isErrorEnabled()) {
+                    LOGGER.error("接收连接失败: {}", e.getMessage(), e);
+                }
+            }
+        }
+    }
+
+    private static void backoff() {
+        try {
+            Thread.sleep(ACCEPT_BACKOFF_MILLIS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @Override
+    public synchronized void close() {
+        if (!running) {
+            return;
+        }
+        running = false;
+        try {
+            serverChannel.close();
+        } catch (IOException e) {
+            if (LOGGER.isErrorEnabled()) {
+                LOGGER.error("关闭服务端通道失败: {}", e.getMessage());
+            }
+        }
+        for (EventLoop loop : loops) {
+            loop.selector.wakeup();
+        }
+        for (EventLoop loop : loops) {
+            try {
+                loop.thread.join(5000);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    /**
+     * Selector线程
+     */
+    private final class EventLoop implements Runnable {
+        private final Selector selector;
+        private final Thread thread;
+        private final Queue<Runnable> tasks = new ConcurrentLinkedQueue<>(); // 其它线程提交的任务
+        private final MessageV2Encoder encoder = new MessageV2Encoder(); // 本线程发送消息使用的编码器
+        private final MessageV2View view = new MessageV2View(); // 本线程复用的消息视图
+
+        EventLoop(int index) throws IOException {
+            this.selector = Selector.open();
+            this.thread = new Thread(this, "iot-v2-loop-" + index);
+        }
+
+        void register(SocketChannel ch) {
+            execute(() -> {
+                try {
+                    NioConnection conn = new NioConnection(this, ch);
+                    conn.key = ch.register(selector, SelectionKey.OP_READ, conn);
+                    connections.incrementAndGet();
+                } catch (IOException e) {
+                    closeQuietly(ch);
+                }
+            });
+        }
+
+        void execute(Runnable task) {
+            tasks.offer(task);
+            if (Thread.currentThread() != thread) {
+                selector.wakeup();
+            }
+        }
+
+        @Override
+        public void run() {
+            while (running) {
+                try {
+                    selector.select();
+                    for (Runnable task; (task = tasks.poll()) != null; ) {
+                        task.run();
+                    }
+                    Iterator<SelectionKey> it = selector.selectedKeys().iterator();
+                    while (it.hasNext()) {
+                        SelectionKey key = it.next();
+                        it.remove();
+                        NioConnection conn = (NioConnection) key.attachment();
+                        if (!key.isValid()) {
+                            conn.doClose();
+                            continue;
+                        }
+                        if (key.isWritable()) {
+                            conn.flush();
+                        }
+                        if (key.isValid() && key.isReadable()) {
+                            conn.read();
+                        }
+                    }
+                } catch (Exception e) {
+                    if (LOGGER.isErrorEnabled()) {
+                        LOGGER.error("Selector线程处理失败: {}", e.getMessage());
+                    }
+                }
+            }
+            for (SelectionKey key : selector.keys()) {
+                ((NioConnection) key.attachment()).doClose();
+            }
+            closeQuietly(selector);
+        }
+    }
+
+    /**
+     * NIO连接，读写均在所属Selector线程中执行
+     */
+    private final class NioConnection implements Connection {
+        private final EventLoop loop;
+        private final SocketChannel ch;
+        private final MessageV2Decoder decoder;
+        private final MessageV2StreamCodec streamCodec; // 连接级压缩上下文，未启用时为null
+        private final Queue<ByteBuffer[]> writeQueue = new ConcurrentLinkedQueue<>(); // 待写出的帧
+        private SelectionKey key;
+        private ByteBuffer readBuf; // 两次读取之间有未处理数据时持有的读缓冲区，解码期间为null
+        private volatile boolean closed; // isOpen与close可在其它线程调用
+
+        NioConnection(EventLoop loop, SocketChannel ch) {
+            this.loop = loop;
+            this.ch = ch;
+            this.decoder = new MessageV2Decoder(maxPacketLength, frameSync ? new MessageV2FrameSync(maxPacketLength) : null);
+            this.streamCodec = streamCompression ? new MessageV2StreamCodec() : null;
+        }
+
+        void read() {
+            ByteBuffer buf = readBuf;
+            readBuf = null; // 解码期间由read持有，处理器关闭连接时doClose不会归还正在解码的缓冲区
+            if (buf == null) {
+                buf = bufferPool.acquire();
+            }
+            try {
+                int len = ch.read(buf);
+                if (len < 0) {
+                    doClose();
+                    return;
+                }
+                buf.flip();
+                ConnectionContext.set(this);
+                try {
+                    for (ByteBuffer frame; !closed && (frame = decoder.decode(buf)) != null; ) {
+                        Message message = loop.view.wrap(frame);
+                        if (streamCodec != null) {
+                            try {
+                                message = streamCodec.decompress(message);
+                            } catch (RuntimeException e) {
+                                // 上下文已失去同步，后续帧都无法解压
+                                throw new MessageFormatException("连接级压缩上下文解压失败!", e);
+                            }
+                        }
+                        try {
+                            processor.process(message);
+                        } catch (Exception e) {
+                            if (LOGGER.isErrorEnabled()) {
+                                LOGGER.error("处理消息失败: {}", e.getMessage(), e);
+                            }
+                        }
+                    }
+                } finally {
+                    ConnectionContext.remove();
+                }
+                if (!closed) {
+                    buf.compact();
+                    readBuf = bufferPool.trim(buf, decoder.getFrameLength());
+                    buf = null; // 已交给readBuf或由trim归还
+                }
+            } catch (MessageFormatException e) {
+                if (LOGGER.isWarnEnabled()) {
+                    LOGGER.warn("{}: 非法数据包, 关闭连接: {}", getRemoteAddress(), e.getMessage());
+                }
+                doClose();
+            } catch (IOException e) {
+                doClose();
+            } finally {
+                if (buf != null) {
+                    if (!closed) {
+                        doClose(); // 未预期的异常，缓冲区中的数据状态未知
+                    }
+                    bufferPool.release(buf); // 连接已关闭，解码结束后才归还
+                }
+            }
+        }
+
+        @Override
+        public void send(Message message) {
+            if (Thread.currentThread() == loop.thread) {
+                if (closed) {
+                    return;
+                }
+                ByteBuffer[] frame = loop.encoder.encode(message);
+                if (writeQueue.isEmpty()) {
+                    try {
+                        MessageV2Encoder.write(ch, frame);
+                    } catch (IOException e) {
+                        doClose();
+                        return;
+                    }
+                    if (!MessageV2Encoder.hasRemaining(frame)) {
+                        return;
+                    }
+                }
+                // 共享的报文头与校验码缓冲区需复制后排队，数据体不复制
+                writeQueue.offer(new ByteBuffer[]{copy(frame[0]), frame[1], copy(frame[2])});
+                interestWrite(true);
+            } else {
+                writeQueue.offer(new MessageV2Encoder(false).encode(message));
+                loop.execute(this::flush);
+            }
+        }
+
+        void flush() {
+            if (closed) {
+                return;
+            }
+            try {
+                for (ByteBuffer[] frame; (frame = writeQueue.peek()) != null; ) {
+                    MessageV2Encoder.write(ch, frame);
+                    if (MessageV2Encoder.hasRemaining(frame)) {
+                        interestWrite(true);
+                        return;
+                    }
+                    writeQueue.poll();
+                }
+                interestWrite(false);
+            } catch (IOException e) {
+                doClose();
+            }
+        }
+
+        private void interestWrite(boolean on) {
+            if (key.isValid()) {
+                int ops = key.interestOps();
+                key.interestOps(on ? ops | SelectionKey.OP_WRITE : ops & ~SelectionKey.OP_WRITE);
+            }
+        }
+
+        @Override
+        public void sendCompressed(long mac, byte messageId, byte[] data) {
+            if (streamCodec == null) {
+                Connection.super.sendCompressed(mac, messageId, data);
+            } else if (Thread.currentThread() == loop.thread) {
+                if (closed) {
+                    return;
+                }
+                Message message;
+                try {
+                    message = streamCodec.createMessage(mac, messageId, data);
+                } catch (RuntimeException e) {
+                    doClose(); // 压缩上下文状态未知，对端无法再同步解压
+                    return;
+                }
+                send(message);
+            } else {
+                // 在Selector线程中压缩并入队，与该线程中的其它压缩发送保持顺序
+                loop.execute(() -> sendCompressed(mac, messageId, data));
+            }
+        }
+
+        @Override
+        public SocketAddress getRemoteAddress() {
+            try {
+                return ch.getRemoteAddress();
+            } catch (IOException e) {
+                return null;
+            }
+        }
+
+        @Override
+        public boolean isOpen() {
+            return !closed && ch.isOpen();
+        }
+
+        @Override
+        public void close() {
+            if (Thread.currentThread() == loop.thread) {
+                doClose();
+            } else {
+                loop.execute(this::doClose);
+            }
+        }
+
+        void doClose() {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            connections.decrementAndGet();
+            if (key != null) {
+                key.cancel();
+            }
+            closeQuietly(ch);
+            if (streamCodec != null) {
+                streamCodec.close();
+            }
+            bufferPool.release(readBuf);
+            readBuf = null;
+            writeQueue.clear();
+        }
+    }
+
+    private static ByteBuffer copy(ByteBuffer buf) {
+        ByteBuffer copy = ByteBuffer.allocate(buf.remaining());
+        copy.put(buf.duplicate());
+        copy.flip();
+        return copy;
+    }
+
+    static void closeQuietly(Closeable closeable) {
+        try {
+            closeable.close();
+        } catch (IOException e) {
+            // ignore
+        }
+    }
+
+    /**
+     * 在本机回环地址启动参考服务端，对每个请求返回通用响应，用于压测与调优
+     * <p>
+     * 参数: [端口，默认8888] [Selector线程数，默认CPU核心数]
+     */
+    public static void main(String[] args) throws Exception {
+        int port = args.length > 0 ? Integer.parseInt(args[0]) : 8888;
+        MessageV2Server server = new MessageV2Server(new InetSocketAddress("127.0.0.1", port), message -> {
+            Connection.current().send(MessageV2Util.responseOK(message));
+        });
+        if (args.length > 1) {
+            server.setThreads(Integer.parseInt(args[1]));
+        }
+        server.start();
+        Runtime.getRuntime().addShutdownHook(new Thread(server::close));
+    }
+}
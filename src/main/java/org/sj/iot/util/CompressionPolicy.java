@@ -0,0 +1,149 @@
+package org.sj.iot.util;
+
+import org.sj.iot.model.DataBody;
+import org.sj.iot.model.Message;
+
+import java.nio.ByteBuffer;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.zip.Deflater;
+
+/**
+ * V2数据体压缩策略，根据数据体类型选择压缩级别与策略，收益不足时不压缩发送
+ * <p>
+ * 小于阈值的数据体直接以原始JSON发送，status置Constants.V2.STATUS_STORED标志位；
+ * 每种类型按指数加权移动平均统计压缩比，压缩比高于上限时该类型改为不压缩发送，每隔一定数量仍压缩一次用于更新压缩比。
+ * 接收端需支持该标志位(MessageV2Util.get已支持)，因此只对支持的网关启用；实例线程安全，可全局共享
+ *
+ * @author shijian
+ * @email shijianws@163.com
+ * @date 2026-10-18
+ */
+public class CompressionPolicy {
+    public static final int DEFAULT_STORE_THRESHOLD = 128; // 默认不压缩阈值
+    public static final double DEFAULT_MAX_RATIO = 0.9; // 默认压缩比上限，压缩后只减少10%以内视为收益不足
+    private static final double ALPHA = 0.125; // 压缩比移动平均权重
+    private static final int PROBE_INTERVAL = 64; // 收益不足时每隔多少条压缩一次
+
+    private final int storeThreshold; // 小于该长度的数据体不压缩
+    private final double maxRatio; // 压缩比上限
+    private final ZipDictionary dictionary; // 预置字典，为null时不使用
+    private final Map<String, Profile> profiles = new ConcurrentHashMap<>(); // 数据体类型 -> 压缩配置
+    private final Profile defaultProfile = new Profile(Deflater.DEFAULT_COMPRESSION, Deflater.DEFAULT_STRATEGY); // 未配置类型的压缩配置
+
+    public CompressionPolicy() {
+        this(DEFAULT_STORE_THRESHOLD, DEFAULT_MAX_RATIO, null);
+    }
+
+    public CompressionPolicy(int storeThreshold, double maxRatio, ZipDictionary dictionary) {
+        this.storeThreshold = storeThreshold;
+        this.maxRatio = maxRatio;
+        this.dictionary = dictionary;
+        setProfile(DataBody.HB, Deflater.BEST_SPEED, Deflater.DEFAULT_STRATEGY); // 心跳数据小且频繁
+        // 命令数据为Base64，重复片段少，只做霍夫曼编码；使用字典时键名可引用字典，仍需查找重复片段
+        setProfile(DataBody.REMOTE_CONTROL, Deflater.BEST_SPEED, dictionary == null ? Deflater.HUFFMAN_ONLY : Deflater.DEFAULT_STRATEGY);
+        setProfile(DataBody.FIRMWARE_UPDATE, Deflater.BEST_SPEED, Deflater.DEFAULT_STRATEGY);
+        setProfile(DataBody.DATAFILE_BACKUP, Deflater.BEST_SPEED, Deflater.DEFAULT_STRATEGY);
+        setProfile(DataBody.DATAFILE_RECOVERY, Deflater.BEST_SPEED, Deflater.DEFAULT_STRATEGY);
+        setProfile(DataBody.GATEWAY_INFO, Deflater.DEFAULT_COMPRESSION, Deflater.DEFAULT_STRATEGY); // 字段多，重复键名多
+        setProfile(DataBody.NEWDEVICES, Deflater.DEFAULT_COMPRESSION, Deflater.DEFAULT_STRATEGY);
+    }
+
+    /**
+     * 设置数据体类型的压缩级别与策略
+     */
+    public CompressionPolicy setProfile(String type, int level, int strategy) {
+        profiles.put(type, new Profile(level, strategy));
+        return this;
+    }
+
+    private Profile getProfile(String type) {
+        Profile profile = type == null ? null : profiles.get(type);
+        return profile == null ? defaultProfile : profile;
+    }
+
+    /**
+     * 获取数据体类型当前的压缩比移动平均值，尚未压缩过返回0
+     */
+    public double getRatio(String type) {
+        return getProfile(type).ratio;
+    }
+
+    /**
+     * 按数据体类型压缩数据
+     *
+     * @return 压缩后的数据，返回null表示应不压缩发送
+     */
+    public byte[] compress(byte[] data, String type) {
+        if (data == null || data.length < storeThreshold) {
+            return null;
+        }
+        Profile profile = getProfile(type);
+        long count = profile.count.getAndIncrement();
+        if (profile.ratio >= maxRatio && count % PROBE_INTERVAL != 0) {
+            return null; // 近期压缩收益不足
+        }
+        byte[] bs = ZipUtil.compress(data, profile.level, profile.strategy, dictionary);
+        profile.update((double) bs.length / data.length);
+        return bs.length < data.length ? bs : null;
+    }
+
+    /**
+     * 生成消息对象
+     */
+    public Message createMessage(long mac, byte messageId, DataBody dataBody) {
+        return createMessage(mac, messageId, JsonUtil.toJsonByte(dataBody), dataBody.getType());
+    }
+
+    /**
+     * 根据未压缩的业务数据生成消息对象，不压缩时status置未压缩标志位
+     */
+    public Message createMessage(long mac, byte messageId, byte[] data, String type) {
+        if (data == null || data.length == 0) {
+            return MessageV2Util.newMessage(mac, messageId, new byte[0], Constants.V2.STATUS);
+        }
+        byte[] bs = compress(data, type);
+        if (bs == null) {
+            return MessageV2Util.newMessage(mac, messageId, data, (byte) (Constants.V2.STATUS | Constants.V2.STATUS_STORED));
+        }
+        return MessageV2Util.newMessage(mac, messageId, bs, Constants.V2.STATUS);
+    }
+
+    /**
+     * 使用编码器编码未压缩的业务数据，不生成消息对象
+     */
+    public ByteBuffer[] encode(MessageV2Encoder encoder, long mac, byte messageId, byte[] data, String type) {
+        if (data == null || data.length == 0) {
+            return encoder.encode(mac, messageId, Constants.V2.STATUS, ByteBuffer.allocate(0));
+        }
+        byte[] bs = compress(data, type);
+        if (bs == null) {
+            return encoder.encode(mac, messageId, (byte) (Constants.V2.STATUS | Constants.V2.STATUS_STORED), ByteBuffer.wrap(data));
+        }
+        return encoder.encode(mac, messageId, Constants.V2.STATUS, ByteBuffer.wrap(bs));
+    }
+
+    /**
+     * 数据体类型的压缩配置与压缩比统计
+     */
+    private static final class Profile {
+        private final int level; // 压缩级别
+        private final int strategy; // 压缩策略
+        private final AtomicLong count = new AtomicLong(); // 已处理数量
+        private volatile double ratio; // 压缩比移动平均值
+
+        private Profile(int level, int strategy) {
+            this.level = level;
+            this.strategy = strategy;
+        }
+
+        /**
+         * 更新压缩比，并发更新时可能丢失个别样本，不影响趋势
+         */
+        private void update(double sample) {
+            double current = ratio;
+            ratio = current == 0 ? sample : current + ALPHA * (sample - current);
+        }
+    }
+}
@@ -55,6 +55,38 @@ public class Constants {
          * 数据包状态值
          */
         public static final byte STATUS = 0x00;
+        /**
+         * 数据包状态标志位: 数据体未压缩，为原始JSON，仅在收发双方都支持时使用
+         */
+        public static final byte STATUS_STORED = 0x01;
+        /**
+         * 数据包状态标志位: 数据体使用连接级压缩上下文压缩，需按接收顺序解压
+         */
+        public static final byte STATUS_STREAM = 0x02;
+
+        /**
+         * 报文头字节长度，从magic到status: magic(4) packetLength(4) version(1) mac(6) messageId(1) status(1)
+         */
+        public static final int HEADER_LEN = MAGIC_NUMBER_LEN + PACKET_LEN + VERSION_LEN + MAC_LEN + MESSAGE_ID_LEN + STATUS_LEN;
+        /**
+         * 不含数据体的最小包长度，从version到checksum
+         */
+        public static final int MIN_PACKET_LEN = VERSION_LEN + MAC_LEN + MESSAGE_ID_LEN + STATUS_LEN + CHECK_SUM_LEN;
+        /**
+         * 默认允许的最大包长度，超出视为非法数据包
+         */
+        public static final int MAX_PACKET_LEN = 16 * 1024 * 1024;
+
+        /**
+         * 各字段在报文中的偏移量
+         */
+        public static final int MAGIC_OFFSET = 0;
+        public static final int PACKET_LEN_OFFSET = MAGIC_OFFSET + MAGIC_NUMBER_LEN;
+        public static final int VERSION_OFFSET = PACKET_LEN_OFFSET + PACKET_LEN;
+        public static final int MAC_OFFSET = VERSION_OFFSET + VERSION_LEN;
+        public static final int MESSAGE_ID_OFFSET = MAC_OFFSET + MAC_LEN;
+        public static final int STATUS_OFFSET = MESSAGE_ID_OFFSET + MESSAGE_ID_LEN;
+        public static final int DATA_OFFSET = STATUS_OFFSET + STATUS_LEN;
     }
 
     /**
@@ -0,0 +1,167 @@
+package org.sj.iot.util;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.util.ByteBufferBackedInputStream;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+
+/**
+ * 指定类型的JSON编解码器，预先构建ObjectReader/ObjectWriter，省去每次调用时的根类型查找与配置解析
+ * <p>
+ * 通过JsonUtil.codec获取，实例不可变且线程安全。失败时与JsonUtil一致，记录日志并返回null。
+ * 序列化对象的实际类型不是codec类型(如子类或接口的其它实现)时按实际类型序列化，与JsonUtil.toJsonByte结果一致
+ *
+ * @author shijian
+ * @email shijianws@163.com
+ * @date 2026-10-18
+ */
+public final class JsonCodec<T> {
+    private static final Logger LOGGER = LoggerFactory.getLogger(JsonCodec.class);
+
+    private final Class<T> type;
+    private final ObjectReader reader;
+    private final ObjectWriter writer; // 按type序列化
+    private final ObjectWriter dynamicWriter; // 按实际类型序列化
+
+    JsonCodec(ObjectMapper objectMapper, Class<T> type) {
+        this.type = type;
+        this.reader = objectMapper.readerFor(type).without(JsonParser.Feature.AUTO_CLOSE_SOURCE);
+        this.writer = objectMapper.writerFor(type).without(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+        this.dynamicWriter = objectMapper.writer().without(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+    }
+
+    public Class<T> getType() {
+        return type;
+    }
+
+    /**
+     * 将JSON格式字节数组转换为对象
+     */
+    public T toObject(byte[] json) {
+        return toObject(json, 0, json.length);
+    }
+
+    /**
+     * 将JSON格式字节数组[offset, offset + length)转换为对象
+     */
+    public T toObject(byte[] json, int offset, int length) {
+        try {
+            return read(json, offset, length);
+        } catch (Exception e) {
+            LOGGER.error(String.format("JSON转换为 %s 失败: %s", type, e.getMessage()), e);
+        }
+        return null;
+    }
+
+    /**
+     * 将JSON格式字符串转换为对象
+     */
+    public T toObject(String json) {
+        try {
+            return reader.readValue(json);
+        } catch (Exception e) {
+            LOGGER.error(String.format("JSON转换为 %s 失败: %s", type, e.getMessage()), e);
+        }
+        return null;
+    }
+
+    /**
+     * 从输入流读取JSON并转换为对象，不关闭输入流
+     */
+    public T toObject(InputStream in) {
+        try {
+            return read(in);
+        } catch (Exception e) {
+            LOGGER.error(String.format("JSON转换为 %s 失败: %s", type, e.getMessage()), e);
+        }
+        return null;
+    }
+
+    /**
+     * 将缓冲区position到limit部分的JSON转换为对象，不改变缓冲区position
+     */
+    public T toObject(ByteBuffer json) {
+        try {
+            return read(json);
+        } catch (Exception e) {
+            LOGGER.error(String.format("JSON转换为 %s 失败: %s", type, e.getMessage()), e);
+        }
+        return null;
+    }
+
+    /**
+     * 转换失败时抛出异常而不记录日志，供需要自行处理失败(如换用宽松模式重试)的调用方使用
+     */
+    T read(byte[] json, int offset, int length) throws IOException {
+        return reader.readValue(json, offset, length);
+    }
+
+    T read(InputStream in) throws IOException {
+        return reader.readValue(in);
+    }
+
+    T read(ByteBuffer json) throws IOException {
+        if (json.hasArray()) {
+            return read(json.array(), json.arrayOffset() + json.position(), json.remaining());
+        }
+        return read(new ByteBufferBackedInputStream(json.duplicate()));
+    }
+
+    private ObjectWriter writer(Object value) {
+        return value.getClass() == type ? writer : dynamicWriter;
+    }
+
+    /**
+     * 将对象转换成JSON格式的字节数组
+     */
+    public byte[] toJsonByte(T value) {
+        if (value != null) {
+            try {
+                return writer(value).writeValueAsBytes(value);
+            } catch (Exception e) {
+                LOGGER.error(String.format("JSON转换为字符串失败: %s", e.getMessage()), e);
+            }
+        }
+        return null;
+    }
+
+    /**
+     * 将对象转换成JSON格式的字符串
+     */
+    public String toJsonString(T value) {
+        if (value != null) {
+            try {
+                return writer(value).writeValueAsString(value);
+            } catch (Exception e) {
+                LOGGER.error(String.format("JSON转换为字符串失败: %s", e.getMessage()), e);
+            }
+        }
+        return null;
+    }
+
+    /**
+     * 将对象以JSON格式写入输出流，不关闭输出流
+     *
+     * @return 是否成功
+     */
+    public boolean write(T value, OutputStream out) {
+        if (value != null) {
+            try {
+                writer(value).writeValue(out, value);
+                return true;
+            } catch (Exception e) {
+                LOGGER.error(String.format("JSON转换为字符串失败: %s", e.getMessage()), e);
+            }
+        }
+        return false;
+    }
+}
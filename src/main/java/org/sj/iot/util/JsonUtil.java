@@ -15,6 +15,7 @@ import java.io.StringReader;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.Map.Entry;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * JSON工具包
@@ -28,18 +29,71 @@ public class JsonUtil {
 
     private static final PropertyNamingStrategy NAMING_STRATEGY = PropertyNamingStrategy.SNAKE_CASE;
 
-    public static final ObjectMapper objectMapper;
+    public static final ObjectMapper objectMapper; // 宽松模式
+    public static final ObjectMapper strictObjectMapper; // 严格模式，只接受标准JSON
+
+    /**
+     * JSON解析模式
+     * <p>
+     * 宽松模式接受未加引号的key、单引号与未转义的控制字符，兼容不规范的来源；
+     * 严格模式只接受标准JSON，解析器不需要为这些情况做额外判断，适用于输出规范JSON的来源(如自有网关)。
+     * 两者的序列化配置与输出完全一致
+     */
+    public enum Profile {
+        LENIENT, STRICT;
+
+        public ObjectMapper getObjectMapper() {
+            return this == STRICT ? strictObjectMapper : objectMapper;
+        }
+    }
+
+    private static final Map<Class<?>, JsonCodec<?>> CODECS = new ConcurrentHashMap<>(); // 类型 -> 默认objectMapper的编解码器
+    private static final Map<Class<?>, JsonCodec<?>> STRICT_CODECS = new ConcurrentHashMap<>(); // 类型 -> strictObjectMapper的编解码器
 
     static {
+        objectMapper = createObjectMapper(true);
+        strictObjectMapper = createObjectMapper(false);
+    }
+
+    private static ObjectMapper createObjectMapper(boolean lenient) {
         JsonFactory factory = new JsonFactory();
-        objectMapper = new ObjectMapper(factory);
+        ObjectMapper objectMapper = new ObjectMapper(factory);
         objectMapper.setPropertyNamingStrategy(NAMING_STRATEGY); // 蛇形命名法
-        objectMapper.configure(Feature.ALLOW_UNQUOTED_FIELD_NAMES, true); // 允许不规范的JSON字符串, 例如:key未使用双引号
-        objectMapper.configure(Feature.ALLOW_SINGLE_QUOTES, true); // 允许使用单引号
-        objectMapper.configure(Feature.ALLOW_UNQUOTED_CONTROL_CHARS, true); // 允许出现特殊字符和转义字符，小于32的ASCII
+        objectMapper.configure(Feature.ALLOW_UNQUOTED_FIELD_NAMES, lenient); // 允许不规范的JSON字符串, 例如:key未使用双引号
+        objectMapper.configure(Feature.ALLOW_SINGLE_QUOTES, lenient); // 允许使用单引号
+        objectMapper.configure(Feature.ALLOW_UNQUOTED_CONTROL_CHARS, lenient); // 允许出现特殊字符和转义字符，小于32的ASCII
         objectMapper.disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES); // 忽略不存在的属性
         objectMapper.configure(SerializationFeature.FAIL_ON_EMPTY_BEANS, false); // 忽略懒加载属性
         objectMapper.setSerializationInclusion(Include.NON_EMPTY); // 不将空属性写入JSON
+        objectMapper.registerModule(new ModelJsonModule()); // 消息模型使用手写的流式序列化与反序列化
+        return objectMapper;
+    }
+
+    /**
+     * 获取指定类型的编解码器，按类型缓存；缓存的编解码器使用创建时objectMapper的配置，需在修改objectMapper配置之后获取
+     */
+    public static <T> JsonCodec<T> codec(Class<T> clazz) {
+        return codec(Profile.LENIENT, clazz);
+    }
+
+    /**
+     * 获取指定解析模式与类型的编解码器，按类型缓存
+     */
+    @SuppressWarnings("unchecked")
+    public static <T> JsonCodec<T> codec(Profile profile, Class<T> clazz) {
+        Map<Class<?>, JsonCodec<?>> codecs = profile == Profile.STRICT ? STRICT_CODECS : CODECS;
+        JsonCodec<T> codec = (JsonCodec<T>) codecs.get(clazz);
+        if (codec == null) {
+            codec = (JsonCodec<T>) codecs.computeIfAbsent(clazz, c -> new JsonCodec<>(profile.getObjectMapper(), c));
+        }
+        return codec;
+    }
+
+    /**
+     * 创建使用指定objectMapper的编解码器，不缓存
+     */
+    public static <T> JsonCodec<T> codec(ObjectMapper objectMapper, Class<T> clazz) {
+        return new JsonCodec<>(objectMapper, clazz);
     }
 
     /**
@@ -0,0 +1,76 @@
+package org.sj.iot.util;
+
+import org.sj.iot.model.Message;
+import org.sj.iot.model.MessageV2;
+
+import java.nio.ByteBuffer;
+
+/**
+ * 广播消息，数据体只序列化、压缩、计算校验码一次，发送给每个设备时只替换MAC与消息ID
+ * <p>
+ * 所有设备的消息共享同一个压缩后的数据体数组，调用方不能修改；实例创建后线程安全
+ *
+ * @author shijian
+ * @email shijianws@163.com
+ * @date 2026-10-18
+ */
+public class MessageV2Broadcast {
+    private final byte[] data; // 压缩后的数据体
+    private final int packetLength; // 包长度
+    private final byte dataCheckSum; // 数据体校验码
+    private final byte baseCheckSum; // 除MAC与消息ID外其余字段的校验码
+
+    /**
+     * 根据实体生成广播消息
+     */
+    public MessageV2Broadcast(Object json) {
+        this(JsonUtil.toJsonByte(json));
+    }
+
+    /**
+     * 根据未压缩的业务数据生成广播消息
+     */
+    public MessageV2Broadcast(byte[] data) {
+        byte[] bs = data == null || data.length == 0 ? new byte[0] : ZipUtil.compress(data); // zip压缩
+        this.data = bs;
+        this.packetLength = Constants.V2.MIN_PACKET_LEN + bs.length;
+        this.dataCheckSum = MessageV2Util.getCheckSum(bs, 0, bs.length);
+        // MAC与消息ID按0计算，异或0不影响结果
+        this.baseCheckSum = MessageV2Util.getCheckSum(Constants.V2.MAGIC_NUMBER, packetLength, Constants.V2.VERSION, 0L, (byte) 0, bs, Constants.V2.STATUS);
+    }
+
+    /**
+     * 获取指定设备的校验码
+     */
+    public byte getCheckSum(long mac, byte messageId) {
+        return (byte) (baseCheckSum ^ MessageV2Util.CheckSum.fold(mac) ^ messageId);
+    }
+
+    /**
+     * 生成指定设备的消息对象，消息ID由设备的消息ID生成器生成
+     */
+    public Message createMessage(String macHex) {
+        return createMessage(Tools.macToLong(macHex), MessageV2Util.createMessageId(macHex));
+    }
+
+    /**
+     * 生成指定设备的消息对象
+     */
+    public Message createMessage(long mac, byte messageId) {
+        return new MessageV2(Constants.V2.MAGIC_NUMBER, packetLength, Constants.V2.VERSION, mac, messageId, data, Constants.V2.STATUS, getCheckSum(mac, messageId));
+    }
+
+    /**
+     * 使用编码器编码指定设备的帧，不生成消息对象
+     */
+    public ByteBuffer[] encode(MessageV2Encoder encoder, long mac, byte messageId) {
+        return encoder.encode(mac, messageId, Constants.V2.STATUS, ByteBuffer.wrap(data).asReadOnlyBuffer(), dataCheckSum);
+    }
+
+    /**
+     * 获取压缩后的数据体长度
+     */
+    public int getDataLength() {
+        return data.length;
+    }
+}
@@ -0,0 +1,150 @@
+package org.sj.iot.util;
+
+import org.sj.iot.exception.MessageFormatException;
+
+import java.nio.ByteBuffer;
+
+/**
+ * V2报文流式解码器，从TCP读取的缓冲区中切分出完整帧
+ * <p>
+ * 用法: channel.read(buf) -> buf.flip() -> 循环decode(buf)直到返回null -> buf.compact()，
+ * 帧未读取完整时不能消费缓冲区中的数据，校验码随每次读取增量累加
+ * <p>
+ * 返回的帧为输入缓冲区的切片(position=0, limit=帧长度)，与输入缓冲区共享内容，在下一次compact()之前有效；
+ * 魔数、包长度、版本号与校验码均在切片之前校验，非法数据包不会产生任何对象。非线程安全，每个连接使用一个实例
+ *
+ * @author shijian
+ * @email shijianws@163.com
+ * @date 2026-10-18
+ */
+public class MessageV2Decoder {
+    private final int maxPacketLength; // 允许的最大包长度
+    private int frameLength = -1; // 当前未读取完整的帧长度，-1: 未读取到包长度
+    private int checked; // 当前帧已累加校验码的字节数
+    private final MessageV2Util.CheckSum checkSum = new MessageV2Util.CheckSum(); // 当前帧校验码累加器
+    private final MessageV2FrameSync frameSync; // 帧同步器，为null时遇到非法数据抛出异常
+
+    public MessageV2Decoder() {
+        this(Constants.V2.MAX_PACKET_LEN);
+    }
+
+    public MessageV2Decoder(int maxPacketLength) {
+        this(maxPacketLength, null);
+    }
+
+    /**
+     * @param maxPacketLength 允许的最大包长度
+     * @param frameSync       帧同步器，不为null时遇到非法数据跳过并重新同步，而不是抛出异常
+     */
+    public MessageV2Decoder(int maxPacketLength, MessageV2FrameSync frameSync) {
+        if (maxPacketLength < Constants.V2.MIN_PACKET_LEN) {
+            throw new IllegalArgumentException("最大包长度不能小于" + Constants.V2.MIN_PACKET_LEN);
+        }
+        this.maxPacketLength = maxPacketLength;
+        this.frameSync = frameSync;
+    }
+
+    /**
+     * 从读模式缓冲区中解析下一个完整帧
+     *
+     * @param in 读模式缓冲区，解析成功后position移动到帧结尾
+     * @return 完整帧切片，数据不完整返回null且不移动position
+     * @throws MessageFormatException 魔数、包长度、版本号或校验码不合法且未设置帧同步器，position不移动
+     */
+    public ByteBuffer decode(ByteBuffer in) {
+        for (; ; ) {
+            try {
+                return decodeFrame(in);
+            } catch (MessageFormatException e) {
+                if (frameSync == null) {
+                    throw e;
+                }
+                reset();
+                if (!frameSync.sync(in)) {
+                    return null; // 剩余数据中没有候选帧，等待后续数据
+                }
+            }
+        }
+    }
+
+    /**
+     * 获取帧同步器
+     */
+    public MessageV2FrameSync getFrameSync() {
+        return frameSync;
+    }
+
+    private ByteBuffer decodeFrame(ByteBuffer in) {
+        int pos = in.position();
+        int remaining = in.limit() - pos;
+        if (frameLength < 0) {
+            if (remaining < Constants.V2.MAGIC_NUMBER_LEN) {
+                return null;
+            }
+            int magic = in.getInt(pos + Constants.V2.MAGIC_OFFSET);
+            if (!MessageV2Util.checkMagic(magic)) {
+                throw new MessageFormatException(String.format("非法魔数: 0x%08X", magic));
+            }
+            if (remaining < Constants.V2.MAGIC_NUMBER_LEN + Constants.V2.PACKET_LEN) {
+                return null;
+            }
+            int packetLength = in.getInt(pos + Constants.V2.PACKET_LEN_OFFSET);
+            if (packetLength < Constants.V2.MIN_PACKET_LEN || packetLength > maxPacketLength) {
+                throw new MessageFormatException(String.format("非法包长度: %d", packetLength));
+            }
+            // 版本号到达后再确定帧长度，伪造的帧头在等待整帧之前即被拒绝
+            if (remaining < Constants.V2.VERSION_OFFSET + Constants.V2.VERSION_LEN) {
+                return null;
+            }
+            byte version = in.get(pos + Constants.V2.VERSION_OFFSET);
+            if (!MessageV2Util.checkVersion(version)) {
+                throw new MessageFormatException(String.format("非法版本号: 0x%02X", version));
+            }
+            frameLength = Constants.V2.MAGIC_NUMBER_LEN + Constants.V2.PACKET_LEN + packetLength;
+        }
+        // 只累加本次新到达的字节，帧完整时无需再次遍历
+        int end = Math.min(remaining, frameLength);
+        if (checked < end) {
+            checkSum.update(in, pos + checked, pos + end);
+            checked = end;
+        }
+        if (remaining < frameLength) {
+            return null;
+        }
+        int length = frameLength;
+        // 校验码为其余所有字节的异或值，整帧异或结果应为0
+        byte value = checkSum.get();
+        reset();
+        if (value != 0) {
+            throw new MessageFormatException("校验码不匹配!");
+        }
+        in.position(pos + length);
+        return slice(in, pos, length);
+    }
+
+    /**
+     * 获取当前未读取完整的帧长度，调用方可据此扩容读缓冲区，未读取到包长度时返回-1
+     */
+    public int getFrameLength() {
+        return frameLength;
+    }
+
+    /**
+     * 重置解码状态，连接重置或丢弃缓冲区数据后调用
+     */
+    public void reset() {
+        frameLength = -1;
+        checked = 0;
+        checkSum.reset();
+    }
+
+    /**
+     * 获取缓冲区[index, index + length)的切片，不改变原缓冲区position与limit
+     */
+    static ByteBuffer slice(ByteBuffer buf, int index, int length) {
+        ByteBuffer dup = buf.duplicate();
+        dup.limit(index + length);
+        dup.position(index);
+        return dup.slice();
+    }
+}
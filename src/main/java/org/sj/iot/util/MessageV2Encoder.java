@@ -0,0 +1,129 @@
+package org.sj.iot.util;
+
+import org.sj.iot.model.Message;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.GatheringByteChannel;
+
+/**
+ * V2报文编码器，将报文头与校验码写入可复用缓冲区，数据体不做拷贝
+ * <p>
+ * encode返回[报文头, 数据体, 校验码]三段缓冲区，可直接交给GatheringByteChannel.write一次写出；
+ * 返回的数组与缓冲区在下一次encode之前有效。非线程安全，每个连接或线程使用一个实例
+ *
+ * @author shijian
+ * @email shijianws@163.com
+ * @date 2026-10-18
+ */
+public class MessageV2Encoder {
+    private static final ByteBuffer EMPTY = ByteBuffer.allocate(0);
+
+    private final ByteBuffer header; // 报文头缓冲区，从magic到status
+    private final ByteBuffer trailer; // 校验码缓冲区
+    private final ByteBuffer[] frame = new ByteBuffer[3];
+
+    public MessageV2Encoder() {
+        this(true);
+    }
+
+    /**
+     * @param direct 是否使用堆外缓冲区
+     */
+    public MessageV2Encoder(boolean direct) {
+        if (direct) {
+            this.header = ByteBuffer.allocateDirect(Constants.V2.HEADER_LEN);
+            this.trailer = ByteBuffer.allocateDirect(Constants.V2.CHECK_SUM_LEN);
+        } else {
+            this.header = ByteBuffer.allocate(Constants.V2.HEADER_LEN);
+            this.trailer = ByteBuffer.allocate(Constants.V2.CHECK_SUM_LEN);
+        }
+        frame[0] = header;
+        frame[2] = trailer;
+    }
+
+    /**
+     * 编码已生成的消息对象，直接使用消息中的包长度与校验码，数据体包装为缓冲区不做拷贝
+     */
+    public ByteBuffer[] encode(Message message) {
+        byte[] data = message.getData();
+        ByteBuffer payload = data == null || data.length == 0 ? EMPTY.duplicate() : ByteBuffer.wrap(data);
+        putHeader(message.getMagic(), message.getPacketLength(), message.getVersion(), message.getMac(), message.getMessageId(), message.getStatus());
+        return putTrailer(payload, message.getCheckSum());
+    }
+
+    /**
+     * 将未压缩的业务数据压缩后编码
+     */
+    public ByteBuffer[] encode(long mac, byte messageId, byte[] data) {
+        byte[] bs = data == null || data.length == 0 ? null : ZipUtil.compress(data); // zip压缩
+        ByteBuffer payload = bs == null ? EMPTY.duplicate() : ByteBuffer.wrap(bs);
+        return encode(mac, messageId, Constants.V2.STATUS, payload);
+    }
+
+    /**
+     * 编码已压缩的数据体，数据体为payload的position到limit部分，不改变payload的position
+     */
+    public ByteBuffer[] encode(long mac, byte messageId, byte status, ByteBuffer payload) {
+        return encode(mac, messageId, status, payload, MessageV2Util.getCheckSum(payload, payload.position(), payload.limit()));
+    }
+
+    /**
+     * 编码已压缩的数据体，使用预先计算的数据体校验码，适用于同一数据体发送给多个设备
+     */
+    public ByteBuffer[] encode(long mac, byte messageId, byte status, ByteBuffer payload, byte payloadCheckSum) {
+        int packetLength = Constants.V2.MIN_PACKET_LEN + payload.remaining();
+        putHeader(Constants.V2.MAGIC_NUMBER, packetLength, Constants.V2.VERSION, mac, messageId, status);
+        int checkSum = MessageV2Util.getCheckSum(header, 0, Constants.V2.HEADER_LEN) ^ payloadCheckSum;
+        return putTrailer(payload.duplicate(), (byte) checkSum);
+    }
+
+    private void putHeader(int magic, int packetLength, byte version, long mac, byte messageId, byte status) {
+        header.clear();
+        header.putInt(magic);
+        header.putInt(packetLength);
+        header.put(version);
+        header.putShort((short) (mac >>> 32));
+        header.putInt((int) mac);
+        header.put(messageId);
+        header.put(status);
+        header.flip();
+    }
+
+    private ByteBuffer[] putTrailer(ByteBuffer payload, byte checkSum) {
+        trailer.clear();
+        trailer.put(checkSum);
+        trailer.flip();
+        frame[1] = payload;
+        return frame;
+    }
+
+    /**
+     * 将帧写入通道，阻塞通道会写出全部数据，非阻塞通道可能只写出部分数据，需结合hasRemaining继续写出
+     *
+     * @return 本次写出的字节数
+     */
+    public static long write(GatheringByteChannel channel, ByteBuffer[] frame) throws IOException {
+        long total = 0;
+        do {
+            long len = channel.write(frame);
+            if (len <= 0) {
+                break;
+            }
+            total += len;
+        } while (hasRemaining(frame));
+        return total;
+    }
+
+    /**
+     * 帧是否还有未写出的数据
+     */
+    public static boolean hasRemaining(ByteBuffer[] frame) {
+        for (int i = frame.length - 1; i >= 0; i--) {
+            if (frame[i].hasRemaining()) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
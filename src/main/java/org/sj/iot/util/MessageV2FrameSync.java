@@ -0,0 +1,125 @@
+package org.sj.iot.util;
+
+import java.nio.ByteBuffer;
+
+/**
+ * V2报文帧同步器，数据流损坏时跳过非法字节，定位到下一个合法帧的起始位置
+ * <p>
+ * 魔数查找每次读取8字节，利用SWAR方式一次判断8个字节中是否含有0x88，不含则整体跳过；
+ * 候选位置需通过包长度与版本号校验，若帧已完整还需通过校验码校验，才作为恢复解析的起点。非线程安全，每个连接使用一个实例
+ *
+ * @author shijian
+ * @email shijianws@163.com
+ * @date 2026-10-18
+ */
+public class MessageV2FrameSync {
+    private static final long MAGIC_WORD = 0x8888888888888888L; // 8个魔数字节
+    private static final long LOW_BITS = 0x0101010101010101L;
+    private static final long HIGH_BITS = 0x8080808080808080L;
+
+    private final int maxPacketLength; // 允许的最大包长度
+    private long skippedBytes; // 累计跳过的字节数
+    private long syncCount; // 累计同步次数
+
+    public MessageV2FrameSync() {
+        this(Constants.V2.MAX_PACKET_LEN);
+    }
+
+    public MessageV2FrameSync(int maxPacketLength) {
+        this.maxPacketLength = maxPacketLength;
+    }
+
+    /**
+     * 从position的下一个字节开始查找下一个候选帧，并将position移动到候选帧起始位置
+     *
+     * @param in 读模式缓冲区
+     * @return 找到候选帧返回true，未找到返回false，此时position移动到缓冲区尾部，只保留可能为魔数前缀的字节
+     */
+    public boolean sync(ByteBuffer in) {
+        int start = in.position();
+        int to = in.limit();
+        int from = Math.min(start + 1, to);
+        syncCount++;
+        for (; ; ) {
+            int index = indexOfMagic(in, from, to);
+            if (index < 0) {
+                // 保留尾部可能为魔数前缀的字节，等待后续数据
+                skip(in, start, Math.max(from, to - (Constants.V2.MAGIC_NUMBER_LEN - 1)));
+                return false;
+            }
+            if (isCandidate(in, index, to)) {
+                skip(in, start, index);
+                return true;
+            }
+            from = index + 1;
+        }
+    }
+
+    private void skip(ByteBuffer in, int start, int index) {
+        skippedBytes += index - start;
+        in.position(index);
+    }
+
+    /**
+     * 候选位置的包长度与版本号是否合法，若帧已完整则校验码是否正确
+     */
+    private boolean isCandidate(ByteBuffer in, int index, int to) {
+        if (index + Constants.V2.MAGIC_NUMBER_LEN + Constants.V2.PACKET_LEN > to) {
+            return true; // 包长度未到达，交由解码器继续判断
+        }
+        int packetLength = in.getInt(index + Constants.V2.PACKET_LEN_OFFSET);
+        if (packetLength < Constants.V2.MIN_PACKET_LEN || packetLength > maxPacketLength) {
+            return false;
+        }
+        int versionIndex = index + Constants.V2.VERSION_OFFSET;
+        if (versionIndex < to && !MessageV2Util.checkVersion(in.get(versionIndex))) {
+            return false;
+        }
+        int end = index + Constants.V2.MAGIC_NUMBER_LEN + Constants.V2.PACKET_LEN + packetLength;
+        return end > to || MessageV2Util.getCheckSum(in, index, end) == 0;
+    }
+
+    /**
+     * 在缓冲区[from, to)中查找魔数，不改变缓冲区position
+     *
+     * @return 魔数起始位置，未找到返回-1
+     */
+    public static int indexOfMagic(ByteBuffer buf, int from, int to) {
+        int last = to - Constants.V2.MAGIC_NUMBER_LEN; // 魔数可能的最后起始位置
+        int i = from;
+        while (i <= last) {
+            if (i + 8 <= to) {
+                long x = buf.getLong(i) ^ MAGIC_WORD; // 等于0x88的字节变为0
+                long zero = (x - LOW_BITS) & ~x & HIGH_BITS;
+                if (zero == 0) {
+                    i += 8; // 8个字节中不含0x88，魔数不可能从这里开始
+                    continue;
+                }
+                // 借位只会影响更高位，第一个标记的字节不晚于第一个0x88字节，之前的字节都不是魔数起点
+                i += Long.numberOfLeadingZeros(zero) >>> 3;
+                if (i > last) {
+                    break;
+                }
+            }
+            if (buf.getInt(i) == Constants.V2.MAGIC_NUMBER) {
+                return i;
+            }
+            i++;
+        }
+        return -1;
+    }
+
+    /**
+     * 获取累计跳过的字节数
+     */
+    public long getSkippedBytes() {
+        return skippedBytes;
+    }
+
+    /**
+     * 获取累计同步次数
+     */
+    public long getSyncCount() {
+        return syncCount;
+    }
+}
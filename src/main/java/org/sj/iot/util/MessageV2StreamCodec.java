@@ -0,0 +1,183 @@
+package org.sj.iot.util;
+
+import org.sj.iot.model.Message;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.Closeable;
+import java.util.Arrays;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * 连接级压缩上下文，类似WebSocket permessage-deflate的上下文接管，整个连接生命周期共用一个压缩流与一个解压流
+ * <p>
+ * 每帧数据体以SYNC_FLUSH结束并去掉末尾固定的00 00 FF FF，status置Constants.V2.STATUS_STREAM标志位；
+ * 后续帧可引用之前帧的内容，同一网关重复的心跳与应答压缩后只有几个字节。
+ * 压缩顺序必须与发送顺序一致，收到的每个标志帧都必须按顺序解压，否则上下文失去同步，只能关闭连接。
+ * 压缩与解压各自使用独立的zlib流与输出缓冲区，可分别在发送线程与接收线程中调用，但同一方向的调用必须串行。
+ * 每个连接一个实例，每个实例持有一对zlib流(约数百KB堆外内存)，连接关闭时需调用close释放
+ *
+ * @author shijian
+ * @email shijianws@163.com
+ * @date 2026-10-18
+ */
+public class MessageV2StreamCodec implements Closeable {
+    private static final Logger LOGGER = LoggerFactory.getLogger(MessageV2StreamCodec.class);
+
+    private static final byte[] TAIL = {0x00, 0x00, (byte) 0xFF, (byte) 0xFF}; // SYNC_FLUSH输出的空存储块
+    private static final int BUFFER_SIZE = 1024; // 输出缓冲区初始大小
+    private static final int MAX_RETAINED_BUFFER_SIZE = 64 * 1024; // 帧结束后保留的输出缓冲区最大大小，超过时恢复为初始大小
+
+    private final Deflater deflater;
+    private final Inflater inflater = new Inflater();
+    private final int maxDataLength; // 解压后数据体的最大长度
+    private byte[] deflateBuf = new byte[BUFFER_SIZE]; // 压缩输出缓冲区
+    private byte[] inflateBuf = new byte[BUFFER_SIZE]; // 解压输出缓冲区
+
+    public MessageV2StreamCodec() {
+        this(Deflater.DEFAULT_COMPRESSION, null, Constants.V2.MAX_PACKET_LEN);
+    }
+
+    /**
+     * @param level         压缩级别
+     * @param dictionary    压缩流的预置字典，为null时不使用；解压流根据字典ID自动查找已注册的字典
+     * @param maxDataLength 解压后数据体的最大长度，超过时失败
+     */
+    public MessageV2StreamCodec(int level, ZipDictionary dictionary, int maxDataLength) {
+        this.deflater = new Deflater(level);
+        if (dictionary != null) {
+            deflater.setDictionary(dictionary.data);
+        }
+        this.maxDataLength = maxDataLength;
+    }
+
+    /**
+     * 压缩一帧数据体，调用顺序必须与发送顺序一致
+     */
+    public byte[] compress(byte[] data) {
+        byte[] buf = deflateBuf;
+        try {
+            deflater.setInput(data);
+            int n = 0;
+            for (; ; ) {
+                n += deflater.deflate(buf, n, buf.length - n, Deflater.SYNC_FLUSH);
+                if (n < buf.length) {
+                    break; // 输出缓冲区未填满，本帧数据已全部输出
+                }
+                buf = Arrays.copyOf(buf, buf.length << 1);
+                deflateBuf = buf;
+            }
+            if (n >= TAIL.length && endsWithTail(buf, n)) {
+                n -= TAIL.length;
+            }
+            return Arrays.copyOf(buf, n);
+        } catch (Exception e) {
+            if (LOGGER.isErrorEnabled()) {
+                LOGGER.error("压缩zip数据失败：{}", e.getMessage());
+            }
+            throw new RuntimeException("压缩数据失败!", e);
+        } finally {
+            deflateBuf = shrink(deflateBuf);
+        }
+    }
+
+    /**
+     * 大帧扩容后的缓冲区不在连接的整个生命周期内保留
+     */
+    private static byte[] shrink(byte[] buf) {
+        return buf.length > MAX_RETAINED_BUFFER_SIZE ? new byte[BUFFER_SIZE] : buf;
+    }
+
+    private static boolean endsWithTail(byte[] bs, int length) {
+        for (int i = 0; i < TAIL.length; i++) {
+            if (bs[length - TAIL.length + i] != TAIL[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * 解压一帧数据体，调用顺序必须与接收顺序一致
+     */
+    public byte[] decompress(byte[] data) {
+        try {
+            inflater.setInput(data);
+            int n = inflate(0);
+            inflater.setInput(TAIL); // 补回发送端去掉的空存储块
+            n = inflate(n);
+            return Arrays.copyOf(inflateBuf, n);
+        } catch (Exception e) {
+            if (LOGGER.isErrorEnabled()) {
+                LOGGER.error("解压zip数据失败：{}", e.getMessage());
+            }
+            throw new RuntimeException("解压zip数据失败!", e);
+        } finally {
+            inflateBuf = shrink(inflateBuf);
+        }
+    }
+
+    private int inflate(int n) throws DataFormatException {
+        byte[] buf = inflateBuf;
+        while (!inflater.finished()) {
+            if (n == buf.length) {
+                if (n >= maxDataLength) {
+                    throw new DataFormatException(String.format("解压数据超过最大长度: %d", maxDataLength));
+                }
+                buf = Arrays.copyOf(buf, (int) Math.min((long) buf.length << 1, maxDataLength));
+                inflateBuf = buf;
+            }
+            int len = inflater.inflate(buf, n, buf.length - n);
+            if (len == 0) {
+                if (inflater.needsDictionary()) {
+                    int id = inflater.getAdler();
+                    ZipDictionary dictionary = ZipDictionary.get(id);
+                    if (dictionary == null) {
+                        throw new DataFormatException(String.format("未注册的压缩字典: %08x", id));
+                    }
+                    inflater.setDictionary(dictionary.data);
+                    continue;
+                }
+                if (inflater.needsInput()) {
+                    break;
+                }
+            }
+            n += len;
+        }
+        return n;
+    }
+
+    /**
+     * 根据未压缩的业务数据生成消息对象，生成顺序必须与发送顺序一致；服务端连接通过Connection.sendCompressed调用，保证压缩与发送原子执行
+     */
+    public Message createMessage(long mac, byte messageId, byte[] data) {
+        if (data == null || data.length == 0) {
+            return MessageV2Util.newMessage(mac, messageId, new byte[0], Constants.V2.STATUS);
+        }
+        return MessageV2Util.newMessage(mac, messageId, compress(data), (byte) (Constants.V2.STATUS | Constants.V2.STATUS_STREAM));
+    }
+
+    /**
+     * 解压使用连接级压缩上下文的消息，返回数据体未压缩的消息对象；其它消息原样返回
+     */
+    public Message decompress(Message message) {
+        byte status = message.getStatus();
+        if (!MessageV2Util.isStream(status)) {
+            return message;
+        }
+        byte[] data = decompress(message.getData());
+        status = (byte) (status & ~Constants.V2.STATUS_STREAM | Constants.V2.STATUS_STORED);
+        return MessageV2Util.newMessage(message.getMac(), message.getMessageId(), data, status);
+    }
+
+    /**
+     * 释放zlib流
+     */
+    @Override
+    public void close() {
+        deflater.end();
+        inflater.end();
+    }
+}
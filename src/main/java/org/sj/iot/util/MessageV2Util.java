@@ -1,11 +1,19 @@
 package org.sj.iot.util;
 
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.util.ByteBufferBackedInputStream;
 import org.sj.iot.model.DataBody;
 import org.sj.iot.model.Message;
 import org.sj.iot.model.MessageV2;
+import org.sj.iot.model.MessageV2View;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.atomic.LongAdder;
@@ -22,6 +30,14 @@ public class MessageV2Util {
 
     private static final Map<String, LongAdder> messageId = new ConcurrentHashMap<>();
 
+    private static final JsonCodec<MessageV2> MESSAGE_CODEC = JsonUtil.codec(MessageV2.class);
+
+    private static final Map<Long, JsonUtil.Profile> JSON_PROFILES = new ConcurrentHashMap<>(); // MAC -> 数据体的JSON解析模式
+    private static volatile JsonUtil.Profile defaultJsonProfile = JsonUtil.Profile.LENIENT; // 未指定来源的JSON解析模式
+
+    private static final String PEEK_TYPE = "type"; // 数据体的消息类型字段
+    private static final String PEEK_UTC = "utc"; // 数据体的操作时间字段
+
     /**
      * 清除消息ID生成器
      */
@@ -58,6 +74,13 @@ public class MessageV2Util {
         return Constants.V2.MAGIC_NUMBER == magic;
     }
 
+    /**
+     * 判断协议版本是否正确
+     */
+    public static boolean checkVersion(byte version) {
+        return Constants.V2.VERSION == version;
+    }
+
     /**
      * 获取业务数据长度
      */
@@ -82,39 +105,249 @@ public class MessageV2Util {
         for (int i = Constants.V2.MAC_LEN - 1; i >= 0; i--) {
             checkSum = checkSum ^ (byte) (mac >>> (i * 8) & 0xFF);
         }
-        for (byte b : data) {
-            checkSum = checkSum ^ b;
+        if (data != null) {
+            checkSum = checkSum ^ getCheckSum(data, 0, data.length);
         }
         return (byte) checkSum;
     }
 
+    /**
+     * 获取字节数组指定区间逐个字节异或后的值
+     */
+    public static byte getCheckSum(byte[] data, int offset, int length) {
+        return getCheckSum(ByteBuffer.wrap(data), offset, offset + length);
+    }
+
+    /**
+     * 获取缓冲区指定区间[from, to)逐个字节异或后的值，不改变缓冲区position
+     */
+    public static byte getCheckSum(ByteBuffer buf, int from, int to) {
+        return CheckSum.fold(CheckSum.xor(buf, from, to));
+    }
+
     /**
      * 将消息对象转换成字节数组
      */
     public static byte[] messageToByte(Message message) {
-        return ZipUtil.compress(JsonUtil.toJsonByte(message));
+        byte[] json = message instanceof MessageV2 ? MESSAGE_CODEC.toJsonByte((MessageV2) message) : JsonUtil.toJsonByte(message);
+        return ZipUtil.compress(json);
     }
 
     /**
      * 将字节数组转换成对象
      */
     public static MessageV2 byteToMessage(byte[] bs) {
-        return JsonUtil.toObject(ZipUtil.decompress(bs), MessageV2.class);
+        return MESSAGE_CODEC.toObject(ZipUtil.decompress(bs));
     }
 
     public static Map<String, Object> get(Message message) {
         return get(message, Map.class);
     }
 
+    /**
+     * 解析数据体，压缩数据边解压边交给JSON解析器，解压后的JSON不整体驻留内存
+     * <p>
+     * 按来源的JSON解析模式解析，严格模式解析失败时本帧改用宽松模式重试，来源的解析模式不变
+     */
     public static <T> T get(Message message, Class<T> returnType) {
-        byte[] data = message.getData();
-        if (data != null && data.length > 0) {
-            byte[] bs = ZipUtil.decompress(data);
-            return JsonUtil.toObject(bs, returnType);
+        ByteBuffer data = getDataBuffer(message);
+        if (data == null) {
+            return null;
+        }
+        if (getJsonProfile(message.getMac()) == JsonUtil.Profile.STRICT) {
+            try {
+                return read(message, data, JsonUtil.codec(JsonUtil.Profile.STRICT, returnType));
+            } catch (IOException e) {
+                // 不是标准JSON，本帧换用宽松模式重试
+                if (LOGGER.isDebugEnabled()) {
+                    LOGGER.debug("{} 的数据体不是标准JSON，改用宽松模式解析: {}", message.getMacHex(), e.getMessage());
+                }
+            }
+        }
+        try {
+            return read(message, data, JsonUtil.codec(returnType));
+        } catch (IOException e) {
+            LOGGER.error(String.format("JSON转换为 %s 失败: %s", returnType, e.getMessage()), e);
         }
         return null;
     }
 
+    private static <T> T read(Message message, ByteBuffer data, JsonCodec<T> codec) throws IOException {
+        if (isStored(message.getStatus())) {
+            return codec.read(data);
+        }
+        try (ZipUtil.InflateStream in = ZipUtil.inflateStream(data)) {
+            try {
+                T value = codec.read(in);
+                in.drain(); // JSON之后通常只剩压缩流结尾，读完以校验adler32
+                checkInflated(in);
+                return value;
+            } catch (IOException e) {
+                in.drain(); // 数据损坏时解析器可能先于解压失败报错，读完以区分两者
+                checkInflated(in); // 解压失败优先于JSON格式错误
+                throw e;
+            }
+        }
+    }
+
+    /**
+     * 指定来源的JSON解析模式，如输出标准JSON的自有网关指定为严格模式；经常发送不规范JSON的来源应指定为宽松模式，避免每帧解析两次
+     */
+    public static void setJsonProfile(long mac, JsonUtil.Profile profile) {
+        JSON_PROFILES.put(mac, profile);
+    }
+
+    /**
+     * 获取来源的JSON解析模式，未指定时使用默认模式
+     */
+    public static JsonUtil.Profile getJsonProfile(long mac) {
+        JsonUtil.Profile profile = JSON_PROFILES.get(mac);
+        return profile == null ? defaultJsonProfile : profile;
+    }
+
+    /**
+     * 清除来源的JSON解析模式，恢复为默认模式
+     */
+    public static void clearJsonProfile(long mac) {
+        JSON_PROFILES.remove(mac);
+    }
+
+    /**
+     * 设置未指定来源的默认JSON解析模式，默认为宽松模式
+     */
+    public static void setDefaultJsonProfile(JsonUtil.Profile profile) {
+        defaultJsonProfile = profile;
+    }
+
+    /**
+     * 获取数据体，MessageV2View直接使用帧缓冲区的只读切片，不拷贝数据；数据体为空时返回null
+     */
+    private static ByteBuffer getDataBuffer(Message message) {
+        ByteBuffer data;
+        if (message instanceof MessageV2View) {
+            data = ((MessageV2View) message).getDataBuffer();
+        } else {
+            byte[] bs = message.getData();
+            data = bs == null ? null : ByteBuffer.wrap(bs);
+        }
+        if (data == null || !data.hasRemaining()) {
+            return null;
+        }
+        if (isStream(message.getStatus())) {
+            throw new IllegalStateException("数据体使用连接级压缩上下文压缩，需先通过MessageV2StreamCodec解压!");
+        }
+        return data;
+    }
+
+    /**
+     * JSON解析器会吞掉读取异常，解压失败时与ZipUtil.decompress一致抛出异常，而不是当作格式错误返回null
+     */
+    private static void checkInflated(ZipUtil.InflateStream in) {
+        IOException e = in.getError();
+        if (e != null) {
+            if (LOGGER.isErrorEnabled()) {
+                LOGGER.error("解压zip数据失败：{}", e.getMessage());
+            }
+            throw new RuntimeException("解压zip数据失败!", e);
+        }
+    }
+
+    /**
+     * 只读取数据体顶层的type字段，读到即停止解析，适用于按消息类型路由、过滤等不需要完整数据体的场景
+     * <p>
+     * 压缩数据边解压边解析，读到type后剩余部分不再解压，因此不校验压缩流末尾的adler32
+     *
+     * @return 消息类型，数据体为空、没有type字段或解析失败时返回null
+     */
+    public static String peekType(Message message) {
+        DataBody header = peek(message, false);
+        return header == null ? null : header.getType();
+    }
+
+    /**
+     * 只读取数据体顶层的type与utc字段，两者都读到即停止解析，其余字段(如gateway_info)直接跳过，不做绑定
+     *
+     * @return 只包含type与utc的数据体，数据体为空或解析失败时返回null
+     */
+    public static DataBody peek(Message message) {
+        return peek(message, true);
+    }
+
+    private static DataBody peek(Message message, boolean withUtc) {
+        ByteBuffer data = getDataBuffer(message);
+        if (data == null) {
+            return null;
+        }
+        if (isStored(message.getStatus())) {
+            if (data.hasArray()) {
+                return peek(data.array(), data.arrayOffset() + data.position(), data.remaining(), withUtc);
+            }
+            return peek(new ByteBufferBackedInputStream(data), withUtc);
+        }
+        try (ZipUtil.InflateStream in = ZipUtil.inflateStream(data)) {
+            DataBody header = peek(in, withUtc);
+            checkInflated(in);
+            return header;
+        }
+    }
+
+    static DataBody peek(byte[] json, int offset, int length, boolean withUtc) {
+        try (JsonParser parser = JsonUtil.objectMapper.getFactory().createParser(json, offset, length)) {
+            return peek(parser, withUtc);
+        } catch (Exception e) {
+            LOGGER.error(String.format("读取数据体类型失败: %s", e.getMessage()), e);
+        }
+        return null;
+    }
+
+    static DataBody peek(InputStream json, boolean withUtc) {
+        try (JsonParser parser = JsonUtil.objectMapper.getFactory().createParser(json)) {
+            return peek(parser, withUtc);
+        } catch (Exception e) {
+            LOGGER.error(String.format("读取数据体类型失败: %s", e.getMessage()), e);
+        }
+        return null;
+    }
+
+    /**
+     * 流式读取JSON顶层的type(与utc)字段，嵌套的对象和数组整体跳过；字段重复时取第一次出现的值，读到所需字段后不再校验其余内容
+     */
+    private static DataBody peek(JsonParser parser, boolean withUtc) throws IOException {
+        if (parser.nextToken() != JsonToken.START_OBJECT) {
+            throw new JsonParseException(parser, "数据体不是JSON对象!");
+        }
+        DataBody header = new DataBody();
+        boolean type = false;
+        boolean utc = !withUtc;
+        for (String name; !(type && utc) && (name = parser.nextFieldName()) != null; ) {
+            JsonToken token = parser.nextToken();
+            if (token.isStructStart()) {
+                parser.skipChildren(); // 跳过嵌套内容，type与utc只取标量值
+            } else if (!type && PEEK_TYPE.equals(name)) {
+                header.setType(token == JsonToken.VALUE_NULL ? null : parser.getValueAsString());
+                type = true;
+            } else if (!utc && PEEK_UTC.equals(name)) {
+                header.setUtc(token == JsonToken.VALUE_NULL ? null : parser.getValueAsLong());
+                utc = true;
+            }
+        }
+        return header;
+    }
+
+    /**
+     * 数据体是否未压缩
+     */
+    public static boolean isStored(byte status) {
+        return (status & Constants.V2.STATUS_STORED) != 0;
+    }
+
+    /**
+     * 数据体是否使用连接级压缩上下文压缩
+     */
+    public static boolean isStream(byte status) {
+        return (status & Constants.V2.STATUS_STREAM) != 0;
+    }
+
     /**
      * 生成消息对象
      */
@@ -159,20 +392,109 @@ public class MessageV2Util {
      * 生成消息对象
      */
     public static Message createMessage(long mac, byte messageId, byte[] data) {
-        int magic = Constants.V2.MAGIC_NUMBER;
-        byte version = Constants.V2.VERSION;
+        return createMessage(mac, messageId, data, null);
+    }
+
+    /**
+     * 使用预置字典压缩数据生成消息对象，接收端需注册相同字典
+     */
+    public static Message createMessage(long mac, byte messageId, byte[] data, ZipDictionary dictionary) {
         byte[] bs = null;
         if (data != null) {
-            bs = ZipUtil.compress(data); // zip压缩
+            bs = ZipUtil.compress(data, dictionary); // zip压缩
         } else {
             bs = new byte[0];
         }
-        byte status = Constants.V2.STATUS;
+        return newMessage(mac, messageId, bs, Constants.V2.STATUS);
+    }
+
+    /**
+     * 根据已处理的数据体与状态生成消息对象
+     */
+    static Message newMessage(long mac, byte messageId, byte[] bs, byte status) {
+        int magic = Constants.V2.MAGIC_NUMBER;
+        byte version = Constants.V2.VERSION;
         int packetLength = Constants.V2.VERSION_LEN + Constants.V2.MAC_LEN + Constants.V2.MESSAGE_ID_LEN + bs.length + Constants.V2.STATUS_LEN + Constants.V2.CHECK_SUM_LEN;
         byte checkSum = getCheckSum(magic, packetLength, version, mac, messageId, bs, status);
         return new MessageV2(magic, packetLength, version, mac, messageId, bs, status, checkSum);
     }
 
+    /**
+     * 增量校验码累加器，数据分段到达时逐段累加，避免报文完整后再次遍历数据体
+     * <p>
+     * 异或满足交换律，按8字节一组异或后再折叠为1字节，结果与逐字节异或相同，且与分段的对齐方式无关
+     */
+    public static final class CheckSum {
+        private long value; // 8字节宽度的异或累加值
+
+        /**
+         * 累加字节数组指定区间
+         */
+        public CheckSum update(byte[] data, int offset, int length) {
+            value ^= xor(ByteBuffer.wrap(data), offset, offset + length);
+            return this;
+        }
+
+        /**
+         * 累加缓冲区position到limit部分，不改变缓冲区position
+         */
+        public CheckSum update(ByteBuffer buf) {
+            return update(buf, buf.position(), buf.limit());
+        }
+
+        /**
+         * 累加缓冲区[from, to)部分，不改变缓冲区position
+         */
+        public CheckSum update(ByteBuffer buf, int from, int to) {
+            value ^= xor(buf, from, to);
+            return this;
+        }
+
+        /**
+         * 累加单个字节
+         */
+        public CheckSum update(byte b) {
+            value ^= b & 0xFF;
+            return this;
+        }
+
+        /**
+         * 获取当前累加的校验码
+         */
+        public byte get() {
+            return fold(value);
+        }
+
+        public void reset() {
+            value = 0;
+        }
+
+        /**
+         * 每次读取8字节进行异或，剩余不足8字节部分逐字节异或
+         */
+        static long xor(ByteBuffer buf, int from, int to) {
+            long acc = 0;
+            int i = from;
+            for (int end = to - 7; i < end; i += 8) {
+                acc ^= buf.getLong(i);
+            }
+            for (; i < to; i++) {
+                acc ^= buf.get(i) & 0xFF;
+            }
+            return acc;
+        }
+
+        /**
+         * 将8字节宽度的异或值折叠为1字节
+         */
+        static byte fold(long value) {
+            value ^= value >>> 32;
+            value ^= value >>> 16;
+            value ^= value >>> 8;
+            return (byte) value;
+        }
+    }
+
     /**
      * 通用响应
      */
@@ -182,7 +504,18 @@ public class MessageV2Util {
         }
         String mac = request.getMacHex();
         byte messageId = request.getMessageId();
-        String type = request.getDataBody().getType(); // 获取请求类型
+        String type = request.getDataBodyType(); // 获取请求类型，不解析完整数据体
         return createMessage(mac, messageId, new DataBody(type, Tools.getCurrentTimeMillis() / 1000, "ok"));
     }
+
+    /**
+     * 按压缩策略生成通用响应，小响应不压缩
+     */
+    public static Message responseOK(Message request, CompressionPolicy policy) {
+        if (request == null) {
+            throw new IllegalArgumentException("未找到请求消息，无法根据请求消息生成响应消息对象!");
+        }
+        String type = request.getDataBodyType(); // 获取请求类型，不解析完整数据体
+        return policy.createMessage(request.getMac(), request.getMessageId(), new DataBody(type, Tools.getCurrentTimeMillis() / 1000, "ok"));
+    }
 }
\ No newline at end of file
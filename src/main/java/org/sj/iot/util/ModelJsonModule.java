@@ -0,0 +1,853 @@
+package org.sj.iot.util;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.SerializableString;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.JsonSerializer;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.deser.std.StdDeserializer;
+import com.fasterxml.jackson.databind.module.SimpleModule;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+import com.fasterxml.jackson.databind.type.TypeFactory;
+import org.sj.iot.model.Cmd;
+import org.sj.iot.model.DataBody;
+
+import java.io.IOException;
+import java.util.Map;
+
+/**
+ * 消息模型的Jackson模块，为DataBody及其嵌套类型、Cmd、CmdInfo、AckInfo提供手写的流式序列化与反序列化
+ * <p>
+ * 不经过反射读写属性与命名策略转换，属性名预先编码为SerializedString。输出与JsonUtil.objectMapper的配置完全一致：
+ * 蛇形命名、按字段声明顺序、NON_EMPTY(null与空字符串、空Map不输出，数值0与false输出)，Cmd末尾输出expired。
+ * 反序列化忽略未知属性，常见类型直接读取，其它类型的值交给Jackson默认的转换规则。
+ * 模型类增加或修改字段时需同步修改本类，并运行benchmarks中的ModelJsonCheck确认与不注册本模块时的结果一致
+ *
+ * @author shijian
+ * @email shijianws@163.com
+ * @date 2026-10-18
+ */
+public class ModelJsonModule extends SimpleModule {
+    private static final long serialVersionUID = 1L;
+
+    public ModelJsonModule() {
+        super("ModelJsonModule");
+        addSerializer(DataBody.class, DATA_BODY_SERIALIZER);
+        addSerializer(DataBody.GatewayInfo.class, GATEWAY_INFO_SERIALIZER);
+        addSerializer(DataBody.Hb.class, HB_SERIALIZER);
+        addSerializer(DataBody.FirmwareInfo.class, FIRMWARE_SERIALIZER);
+        addSerializer(DataBody.BackupInfo.class, BACKUP_SERIALIZER);
+        addSerializer(DataBody.RecoveryInfo.class, RECOVERY_SERIALIZER);
+        addSerializer(Cmd.CmdInfo.class, CMD_INFO_SERIALIZER);
+        addSerializer(Cmd.AckInfo.class, ACK_INFO_SERIALIZER);
+        addSerializer(Cmd.class, CMD_SERIALIZER);
+        addDeserializer(DataBody.class, DATA_BODY_DESERIALIZER);
+        addDeserializer(DataBody.GatewayInfo.class, GATEWAY_INFO_DESERIALIZER);
+        addDeserializer(DataBody.Hb.class, HB_DESERIALIZER);
+        addDeserializer(DataBody.FirmwareInfo.class, FIRMWARE_DESERIALIZER);
+        addDeserializer(DataBody.BackupInfo.class, BACKUP_DESERIALIZER);
+        addDeserializer(DataBody.RecoveryInfo.class, RECOVERY_DESERIALIZER);
+        addDeserializer(Cmd.CmdInfo.class, CMD_INFO_DESERIALIZER);
+        addDeserializer(Cmd.AckInfo.class, ACK_INFO_DESERIALIZER);
+        addDeserializer(Cmd.class, CMD_DESERIALIZER);
+    }
+
+    // ---------------------------------------- 序列化 ----------------------------------------
+
+    private static final SerializedString TYPE = new SerializedString("type");
+    private static final SerializedString GATEWAY_INFO = new SerializedString("gateway_info");
+    private static final SerializedString HB = new SerializedString("hb");
+    private static final SerializedString CMD = new SerializedString("cmd");
+    private static final SerializedString ACK = new SerializedString("ack");
+    private static final SerializedString FIRMWARE_UPDATE = new SerializedString("firmware_update");
+    private static final SerializedString DATAFILE_BACKUP = new SerializedString("datafile_backup");
+    private static final SerializedString DATAFILE_RECOVERY = new SerializedString("datafile_recovery");
+    private static final SerializedString UTC = new SerializedString("utc");
+    private static final SerializedString STATUS = new SerializedString("status");
+
+    private static final SerializedString TOTALRAM = new SerializedString("totalram");
+    private static final SerializedString FREERAM = new SerializedString("freeram");
+    private static final SerializedString TOTALDISK = new SerializedString("totaldisk");
+    private static final SerializedString FREEDISK = new SerializedString("freedisk");
+
+    private static final SerializedString FIRMWARE_URL = new SerializedString("firmware_url");
+    private static final SerializedString FIRMWARE_MD5 = new SerializedString("firmware_md5");
+    private static final SerializedString VERSION = new SerializedString("version");
+    private static final SerializedString BACKUP_URL = new SerializedString("backup_url");
+    private static final SerializedString RECOVERY_URL = new SerializedString("recovery_url");
+    private static final SerializedString RECOVERY_MD5 = new SerializedString("recovery_md5");
+
+    private static final SerializedString TOKEN = new SerializedString("token");
+    private static final SerializedString DATAID = new SerializedString("dataid");
+    private static final SerializedString DATA = new SerializedString("data");
+    private static final SerializedString DATA_LENGTH = new SerializedString("data_length");
+    private static final SerializedString UNZIP_DATA_LENGTH = new SerializedString("unzip_data_length");
+    private static final SerializedString RESULT = new SerializedString("result");
+    private static final SerializedString ERRORMSG = new SerializedString("errormsg");
+
+    private static final SerializedString UUID = new SerializedString("uuid");
+    private static final SerializedString SOURCE = new SerializedString("source");
+    private static final SerializedString SENDER = new SerializedString("sender");
+    private static final SerializedString USER_ID = new SerializedString("user_id");
+    private static final SerializedString RECEIVER = new SerializedString("receiver");
+    private static final SerializedString DEVICE = new SerializedString("device");
+    private static final SerializedString DATA_BODY = new SerializedString("data_body");
+    private static final SerializedString EXPIRES = new SerializedString("expires");
+    private static final SerializedString TIMEOUT = new SerializedString("timeout");
+    private static final SerializedString CREATION_TIME = new SerializedString("creation_time");
+    private static final SerializedString SEND_TIME = new SerializedString("send_time");
+    private static final SerializedString ACK_TIME = new SerializedString("ack_time");
+    private static final SerializedString ACKS = new SerializedString("acks");
+    private static final SerializedString EXPECT = new SerializedString("expect");
+    private static final SerializedString FOREC_EXPIRED = new SerializedString("forec_expired");
+    private static final SerializedString EXPIRED = new SerializedString("expired");
+
+    // GatewayInfo的属性名即字段名，按声明顺序
+    private static final SerializedString GW_MANUFACTURER = new SerializedString("manufacturer");
+    private static final SerializedString GW_NAME = new SerializedString("name");
+    private static final SerializedString GW_MAC = new SerializedString("mac");
+    private static final SerializedString GW_TYPE = new SerializedString("type");
+    private static final SerializedString GW_INIT = new SerializedString("init");
+    private static final SerializedString GW_MODE = new SerializedString("mode");
+    private static final SerializedString GW_SWVERSION = new SerializedString("swversion");
+    private static final SerializedString GW_HWVERSION = new SerializedString("hwversion");
+    private static final SerializedString GW_CHANNEL = new SerializedString("channel");
+    private static final SerializedString GW_NETID = new SerializedString("netid");
+    private static final SerializedString GW_POWER = new SerializedString("power");
+    private static final SerializedString GW_USERID = new SerializedString("userid");
+    private static final SerializedString GW_RAWUSERID = new SerializedString("rawuserid");
+    private static final SerializedString GW_LIGHTCOUNT = new SerializedString("lightcount");
+    private static final SerializedString GW_RADIOON = new SerializedString("radioon");
+    private static final SerializedString GW_WIFIMODE = new SerializedString("wifimode");
+    private static final SerializedString GW_WIFISSID = new SerializedString("wifissid");
+    private static final SerializedString GW_WIFIPWD = new SerializedString("wifipwd");
+    private static final SerializedString GW_CONNSSID = new SerializedString("connssid");
+    private static final SerializedString GW_CONNPWD = new SerializedString("connpwd");
+    private static final SerializedString GW_AUTOUPDATE = new SerializedString("autoupdate");
+    private static final SerializedString GW_AUTOBACKUP = new SerializedString("autobackup");
+    private static final SerializedString GW_WGKGILIGHTON = new SerializedString("wgkgilighton");
+    private static final SerializedString GW_WGKGILIGHTSYNC = new SerializedString("wgkgilightsync");
+    private static final SerializedString GW_GEEKMODE = new SerializedString("geekmode");
+    private static final SerializedString GW_GEEKKEY = new SerializedString("geekkey");
+    private static final SerializedString GW_REMOTEENABLE = new SerializedString("remoteenable");
+    private static final SerializedString GW_SERVERIP = new SerializedString("serverip");
+    private static final SerializedString GW_SERVERPORT = new SerializedString("serverport");
+    private static final SerializedString GW_MAPWIDTH = new SerializedString("mapwidth");
+    private static final SerializedString GW_MAPHEIGHT = new SerializedString("mapheight");
+    private static final SerializedString GW_USERDATA = new SerializedString("userdata");
+    private static final SerializedString GW_SERVERCONNECTED = new SerializedString("serverconnected");
+    private static final SerializedString GW_RESERVE1 = new SerializedString("reserve1");
+    private static final SerializedString GW_RESERVE2 = new SerializedString("reserve2");
+    private static final SerializedString GW_RESERVE3 = new SerializedString("reserve3");
+
+    /**
+     * 对象序列化基类，输出{属性...}
+     */
+    private abstract static class BeanSerializer<T> extends StdSerializer<T> {
+        private static final long serialVersionUID = 1L;
+
+        BeanSerializer(Class<T> type) {
+            super(type);
+        }
+
+        @Override
+        public void serialize(T value, JsonGenerator gen, SerializerProvider provider) throws IOException {
+            gen.writeStartObject();
+            writeProperties(value, gen, provider);
+            gen.writeEndObject();
+        }
+
+        abstract void writeProperties(T value, JsonGenerator gen, SerializerProvider provider) throws IOException;
+    }
+
+    private static void writeString(JsonGenerator gen, SerializableString name, String value) throws IOException {
+        if (value != null && !value.isEmpty()) {
+            gen.writeFieldName(name);
+            gen.writeString(value);
+        }
+    }
+
+    private static void writeNumber(JsonGenerator gen, SerializableString name, Integer value) throws IOException {
+        if (value != null) {
+            gen.writeFieldName(name);
+            gen.writeNumber(value);
+        }
+    }
+
+    private static void writeNumber(JsonGenerator gen, SerializableString name, Long value) throws IOException {
+        if (value != null) {
+            gen.writeFieldName(name);
+            gen.writeNumber(value);
+        }
+    }
+
+    private static <T> void writeBean(JsonGenerator gen, SerializableString name, T value, BeanSerializer<T> serializer, SerializerProvider provider) throws IOException {
+        if (value != null) {
+            gen.writeFieldName(name);
+            serializer.serialize(value, gen, provider);
+        }
+    }
+
+    private static final BeanSerializer<DataBody.Hb> HB_SERIALIZER = new BeanSerializer<DataBody.Hb>(DataBody.Hb.class) {
+        private static final long serialVersionUID = 1L;
+
+        @Override
+        void writeProperties(DataBody.Hb value, JsonGenerator gen, SerializerProvider provider) throws IOException {
+            writeNumber(gen, TOTALRAM, value.getTotalram());
+            writeNumber(gen, FREERAM, value.getFreeram());
+            writeNumber(gen, TOTALDISK, value.getTotaldisk());
+            writeNumber(gen, FREEDISK, value.getFreedisk());
+        }
+    };
+
+    private static final BeanSerializer<DataBody.FirmwareInfo> FIRMWARE_SERIALIZER = new BeanSerializer<DataBody.FirmwareInfo>(DataBody.FirmwareInfo.class) {
+        private static final long serialVersionUID = 1L;
+
+        @Override
+        void writeProperties(DataBody.FirmwareInfo value, JsonGenerator gen, SerializerProvider provider) throws IOException {
+            writeString(gen, FIRMWARE_URL, value.getFirmwareUrl());
+            writeString(gen, FIRMWARE_MD5, value.getFirmwareMd5());
+            writeString(gen, VERSION, value.getVersion());
+        }
+    };
+
+    private static final BeanSerializer<DataBody.BackupInfo> BACKUP_SERIALIZER = new BeanSerializer<DataBody.BackupInfo>(DataBody.BackupInfo.class) {
+        private static final long serialVersionUID = 1L;
+
+        @Override
+        void writeProperties(DataBody.BackupInfo value, JsonGenerator gen, SerializerProvider provider) throws IOException {
+            writeString(gen, BACKUP_URL, value.getBackupUrl());
+        }
+    };
+
+    private static final BeanSerializer<DataBody.RecoveryInfo> RECOVERY_SERIALIZER = new BeanSerializer<DataBody.RecoveryInfo>(DataBody.RecoveryInfo.class) {
+        private static final long serialVersionUID = 1L;
+
+        @Override
+        void writeProperties(DataBody.RecoveryInfo value, JsonGenerator gen, SerializerProvider provider) throws IOException {
+            writeString(gen, RECOVERY_URL, value.getRecoveryUrl());
+            writeString(gen, RECOVERY_MD5, value.getRecoveryMd5());
+        }
+    };
+
+    private static final BeanSerializer<Cmd.CmdInfo> CMD_INFO_SERIALIZER = new BeanSerializer<Cmd.CmdInfo>(Cmd.CmdInfo.class) {
+        private static final long serialVersionUID = 1L;
+
+        @Override
+        void writeProperties(Cmd.CmdInfo value, JsonGenerator gen, SerializerProvider provider) throws IOException {
+            writeString(gen, TOKEN, value.getToken());
+            writeString(gen, DATAID, value.getDataid());
+            writeString(gen, DATA, value.getData());
+            writeNumber(gen, DATA_LENGTH, value.getDataLength());
+            writeNumber(gen, UNZIP_DATA_LENGTH, value.getUnzipDataLength());
+        }
+    };
+
+    private static final BeanSerializer<Cmd.AckInfo> ACK_INFO_SERIALIZER = new BeanSerializer<Cmd.AckInfo>(Cmd.AckInfo.class) {
+        private static final long serialVersionUID = 1L;
+
+        @Override
+        void writeProperties(Cmd.AckInfo value, JsonGenerator gen, SerializerProvider provider) throws IOException {
+            writeString(gen, TOKEN, value.getToken());
+            writeString(gen, DATAID, value.getDataid());
+            writeString(gen, DATA, value.getData());
+            writeNumber(gen, DATA_LENGTH, value.getDataLength());
+            writeNumber(gen, UNZIP_DATA_LENGTH, value.getUnzipDataLength());
+            writeNumber(gen, RESULT, value.getResult());
+            writeString(gen, ERRORMSG, value.getErrormsg());
+            writeString(gen, CMD, value.getCmd());
+        }
+    };
+
+    private static final BeanSerializer<DataBody.GatewayInfo> GATEWAY_INFO_SERIALIZER = new BeanSerializer<DataBody.GatewayInfo>(DataBody.GatewayInfo.class) {
+        private static final long serialVersionUID = 1L;
+
+        @Override
+        void writeProperties(DataBody.GatewayInfo value, JsonGenerator gen, SerializerProvider provider) throws IOException {
+            writeString(gen, GW_MANUFACTURER, value.getManufacturer());
+            writeString(gen, GW_NAME, value.getName());
+            writeString(gen, GW_MAC, value.getMac());
+            writeNumber(gen, GW_TYPE, value.getType());
+            writeNumber(gen, GW_INIT, value.getInit());
+            writeNumber(gen, GW_MODE, value.getMode());
+            writeString(gen, GW_SWVERSION, value.getSwversion());
+            writeString(gen, GW_HWVERSION, value.getHwversion());
+            writeNumber(gen, GW_CHANNEL, value.getChannel());
+            writeNumber(gen, GW_NETID, value.getNetid());
+            writeNumber(gen, GW_POWER, value.getPower());
+            writeNumber(gen, GW_USERID, value.getUserid());
+            writeNumber(gen, GW_RAWUSERID, value.getRawuserid());
+            writeNumber(gen, GW_LIGHTCOUNT, value.getLightcount());
+            writeNumber(gen, GW_RADIOON, value.getRadioon());
+            writeNumber(gen, GW_WIFIMODE, value.getWifimode());
+            writeString(gen, GW_WIFISSID, value.getWifissid());
+            writeString(gen, GW_WIFIPWD, value.getWifipwd());
+            writeString(gen, GW_CONNSSID, value.getConnssid());
+            writeString(gen, GW_CONNPWD, value.getConnpwd());
+            writeNumber(gen, GW_AUTOUPDATE, value.getAutoupdate());
+            writeNumber(gen, GW_AUTOBACKUP, value.getAutobackup());
+            writeNumber(gen, GW_WGKGILIGHTON, value.getWgkgilighton());
+            writeNumber(gen, GW_WGKGILIGHTSYNC, value.getWgkgilightsync());
+            writeNumber(gen, GW_GEEKMODE, value.getGeekmode());
+            writeString(gen, GW_GEEKKEY, value.getGeekkey());
+            writeNumber(gen, GW_REMOTEENABLE, value.getRemoteenable());
+            writeString(gen, GW_SERVERIP, value.getServerip());
+            writeNumber(gen, GW_SERVERPORT, value.getServerport());
+            writeNumber(gen, GW_MAPWIDTH, value.getMapwidth());
+            writeNumber(gen, GW_MAPHEIGHT, value.getMapheight());
+            writeString(gen, GW_USERDATA, value.getUserdata());
+            writeNumber(gen, GW_SERVERCONNECTED, value.getServerconnected());
+            writeNumber(gen, GW_RESERVE1, value.getReserve1());
+            writeNumber(gen, GW_RESERVE2, value.getReserve2());
+            writeNumber(gen, GW_RESERVE3, value.getReserve3());
+        }
+    };
+
+    private static final BeanSerializer<DataBody> DATA_BODY_SERIALIZER = new BeanSerializer<DataBody>(DataBody.class) {
+        private static final long serialVersionUID = 1L;
+
+        @Override
+        void writeProperties(DataBody value, JsonGenerator gen, SerializerProvider provider) throws IOException {
+            writeString(gen, TYPE, value.getType());
+            writeBean(gen, GATEWAY_INFO, value.getGatewayInfo(), GATEWAY_INFO_SERIALIZER, provider);
+            writeBean(gen, HB, value.getHb(), HB_SERIALIZER, provider);
+            writeBean(gen, CMD, value.getCmd(), CMD_INFO_SERIALIZER, provider);
+            writeBean(gen, ACK, value.getAck(), ACK_INFO_SERIALIZER, provider);
+            writeBean(gen, FIRMWARE_UPDATE, value.getFirmwareUpdate(), FIRMWARE_SERIALIZER, provider);
+            writeBean(gen, DATAFILE_BACKUP, value.getDatafileBackup(), BACKUP_SERIALIZER, provider);
+            writeBean(gen, DATAFILE_RECOVERY, value.getDatafileRecovery(), RECOVERY_SERIALIZER, provider);
+            writeNumber(gen, UTC, value.getUtc());
+            writeString(gen, STATUS, value.getStatus());
+        }
+    };
+
+    private static final BeanSerializer<Cmd> CMD_SERIALIZER = new BeanSerializer<Cmd>(Cmd.class) {
+        private static final long serialVersionUID = 1L;
+
+        @Override
+        void writeProperties(Cmd value, JsonGenerator gen, SerializerProvider provider) throws IOException {
+            writeString(gen, UUID, value.getUuid());
+            writeString(gen, SOURCE, value.getSource());
+            writeString(gen, SENDER, value.getSender());
+            writeString(gen, USER_ID, value.getUserId());
+            writeString(gen, RECEIVER, value.getReceiver());
+            writeString(gen, DEVICE, value.getDevice());
+            writeBean(gen, DATA_BODY, value.getDataBody(), DATA_BODY_SERIALIZER, provider);
+            gen.writeFieldName(EXPIRES);
+            gen.writeNumber(value.getExpires());
+            writeNumber(gen, TIMEOUT, value.getTimeout());
+            writeNumber(gen, CREATION_TIME, value.getCreationTime());
+            writeNumber(gen, SEND_TIME, value.getSendTime());
+            writeNumber(gen, ACK_TIME, value.getAckTime());
+            Map<String, Long> acks = value.getAcks();
+            if (acks != null && !acks.isEmpty()) {
+                // Map的序列化与空值处理交给Jackson，值全部为null时与空Map一样不输出
+                JsonSerializer<Object> serializer = provider.findValueSerializer(acks.getClass(), null);
+                if (!serializer.isEmpty(provider, acks)) {
+                    gen.writeFieldName(ACKS);
+                    serializer.serialize(acks, gen, provider);
+                }
+            }
+            writeNumber(gen, EXPECT, value.getExpect());
+            Boolean forecExpired = value.getForecExpired();
+            if (forecExpired != null) {
+                gen.writeFieldName(FOREC_EXPIRED);
+                gen.writeBoolean(forecExpired);
+            }
+            gen.writeFieldName(EXPIRED);
+            gen.writeBoolean(value.isExpired());
+        }
+    };
+
+    // ---------------------------------------- 反序列化 ----------------------------------------
+
+    /**
+     * 对象反序列化基类，逐个读取属性，未知属性跳过
+     */
+    private abstract static class BeanDeserializer<T> extends StdDeserializer<T> {
+        private static final long serialVersionUID = 1L;
+
+        BeanDeserializer(Class<T> type) {
+            super(type);
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public T deserialize(JsonParser p, DeserializationContext ctxt) throws IOException {
+            String name;
+            if (p.isExpectedStartObjectToken()) {
+                name = p.nextFieldName();
+            } else if (p.hasToken(JsonToken.FIELD_NAME)) {
+                name = p.getCurrentName();
+            } else if (p.hasToken(JsonToken.END_OBJECT)) {
+                name = null;
+            } else {
+                return (T) ctxt.handleUnexpectedToken(handledType(), p);
+            }
+            T bean = create();
+            for (; name != null; name = p.nextFieldName()) {
+                p.nextToken();
+                if (!readProperty(bean, name, p, ctxt)) {
+                    p.skipChildren();
+                }
+            }
+            return bean;
+        }
+
+        abstract T create();
+
+        /**
+         * 读取属性值，parser位于值的第一个token
+         *
+         * @return 是否为已知属性
+         */
+        abstract boolean readProperty(T bean, String name, JsonParser p, DeserializationContext ctxt) throws IOException;
+    }
+
+    private static String readString(JsonParser p, DeserializationContext ctxt) throws IOException {
+        JsonToken t = p.getCurrentToken();
+        if (t == JsonToken.VALUE_STRING) {
+            return p.getText();
+        }
+        if (t == JsonToken.VALUE_NULL) {
+            return null;
+        }
+        return ctxt.readValue(p, String.class);
+    }
+
+    private static Integer readInteger(JsonParser p, DeserializationContext ctxt) throws IOException {
+        JsonToken t = p.getCurrentToken();
+        if (t == JsonToken.VALUE_NUMBER_INT) {
+            return p.getIntValue();
+        }
+        if (t == JsonToken.VALUE_NULL) {
+            return null;
+        }
+        return ctxt.readValue(p, Integer.class);
+    }
+
+    private static Long readLong(JsonParser p, DeserializationContext ctxt) throws IOException {
+        JsonToken t = p.getCurrentToken();
+        if (t == JsonToken.VALUE_NUMBER_INT) {
+            return p.getLongValue();
+        }
+        if (t == JsonToken.VALUE_NULL) {
+            return null;
+        }
+        return ctxt.readValue(p, Long.class);
+    }
+
+    private static <T> T readBean(JsonParser p, DeserializationContext ctxt, BeanDeserializer<T> deserializer) throws IOException {
+        return p.getCurrentToken() == JsonToken.VALUE_NULL ? null : deserializer.deserialize(p, ctxt);
+    }
+
+    private static final BeanDeserializer<DataBody.Hb> HB_DESERIALIZER = new BeanDeserializer<DataBody.Hb>(DataBody.Hb.class) {
+        private static final long serialVersionUID = 1L;
+
+        @Override
+        DataBody.Hb create() {
+            return new DataBody.Hb();
+        }
+
+        @Override
+        boolean readProperty(DataBody.Hb bean, String name, JsonParser p, DeserializationContext ctxt) throws IOException {
+            switch (name) {
+                case "totalram":
+                    bean.setTotalram(readLong(p, ctxt));
+                    return true;
+                case "freeram":
+                    bean.setFreeram(readLong(p, ctxt));
+                    return true;
+                case "totaldisk":
+                    bean.setTotaldisk(readLong(p, ctxt));
+                    return true;
+                case "freedisk":
+                    bean.setFreedisk(readLong(p, ctxt));
+                    return true;
+                default:
+                    return false;
+            }
+        }
+    };
+
+    private static final BeanDeserializer<DataBody.FirmwareInfo> FIRMWARE_DESERIALIZER = new BeanDeserializer<DataBody.FirmwareInfo>(DataBody.FirmwareInfo.class) {
+        private static final long serialVersionUID = 1L;
+
+        @Override
+        DataBody.FirmwareInfo create() {
+            return new DataBody.FirmwareInfo();
+        }
+
+        @Override
+        boolean readProperty(DataBody.FirmwareInfo bean, String name, JsonParser p, DeserializationContext ctxt) throws IOException {
+            switch (name) {
+                case "firmware_url":
+                    bean.setFirmwareUrl(readString(p, ctxt));
+                    return true;
+                case "firmware_md5":
+                    bean.setFirmwareMd5(readString(p, ctxt));
+                    return true;
+                case "version":
+                    bean.setVersion(readString(p, ctxt));
+                    return true;
+                default:
+                    return false;
+            }
+        }
+    };
+
+    private static final BeanDeserializer<DataBody.BackupInfo> BACKUP_DESERIALIZER = new BeanDeserializer<DataBody.BackupInfo>(DataBody.BackupInfo.class) {
+        private static final long serialVersionUID = 1L;
+
+        @Override
+        DataBody.BackupInfo create() {
+            return new DataBody.BackupInfo();
+        }
+
+        @Override
+        boolean readProperty(DataBody.BackupInfo bean, String name, JsonParser p, DeserializationContext ctxt) throws IOException {
+            if ("backup_url".equals(name)) {
+                bean.setBackupUrl(readString(p, ctxt));
+                return true;
+            }
+            return false;
+        }
+    };
+
+    private static final BeanDeserializer<DataBody.RecoveryInfo> RECOVERY_DESERIALIZER = new BeanDeserializer<DataBody.RecoveryInfo>(DataBody.RecoveryInfo.class) {
+        private static final long serialVersionUID = 1L;
+
+        @Override
+        DataBody.RecoveryInfo create() {
+            return new DataBody.RecoveryInfo();
+        }
+
+        @Override
+        boolean readProperty(DataBody.RecoveryInfo bean, String name, JsonParser p, DeserializationContext ctxt) throws IOException {
+            switch (name) {
+                case "recovery_url":
+                    bean.setRecoveryUrl(readString(p, ctxt));
+                    return true;
+                case "recovery_md5":
+                    bean.setRecoveryMd5(readString(p, ctxt));
+                    return true;
+                default:
+                    return false;
+            }
+        }
+    };
+
+    private static final BeanDeserializer<Cmd.CmdInfo> CMD_INFO_DESERIALIZER = new BeanDeserializer<Cmd.CmdInfo>(Cmd.CmdInfo.class) {
+        private static final long serialVersionUID = 1L;
+
+        @Override
+        Cmd.CmdInfo create() {
+            return new Cmd.CmdInfo();
+        }
+
+        @Override
+        boolean readProperty(Cmd.CmdInfo bean, String name, JsonParser p, DeserializationContext ctxt) throws IOException {
+            switch (name) {
+                case "token":
+                    bean.setToken(readString(p, ctxt));
+                    return true;
+                case "dataid":
+                    bean.setDataid(readString(p, ctxt));
+                    return true;
+                case "data":
+                    bean.setData(readString(p, ctxt));
+                    return true;
+                case "data_length":
+                    bean.setDataLength(readInteger(p, ctxt));
+                    return true;
+                case "unzip_data_length":
+                    bean.setUnzipDataLength(readInteger(p, ctxt));
+                    return true;
+                default:
+                    return false;
+            }
+        }
+    };
+
+    private static final BeanDeserializer<Cmd.AckInfo> ACK_INFO_DESERIALIZER = new BeanDeserializer<Cmd.AckInfo>(Cmd.AckInfo.class) {
+        private static final long serialVersionUID = 1L;
+
+        @Override
+        Cmd.AckInfo create() {
+            return new Cmd.AckInfo();
+        }
+
+        @Override
+        boolean readProperty(Cmd.AckInfo bean, String name, JsonParser p, DeserializationContext ctxt) throws IOException {
+            switch (name) {
+                case "token":
+                    bean.setToken(readString(p, ctxt));
+                    return true;
+                case "dataid":
+                    bean.setDataid(readString(p, ctxt));
+                    return true;
+                case "data":
+                    bean.setData(readString(p, ctxt));
+                    return true;
+                case "data_length":
+                    bean.setDataLength(readInteger(p, ctxt));
+                    return true;
+                case "unzip_data_length":
+                    bean.setUnzipDataLength(readInteger(p, ctxt));
+                    return true;
+                case "result":
+                    bean.setResult(readInteger(p, ctxt));
+                    return true;
+                case "errormsg":
+                    bean.setErrormsg(readString(p, ctxt));
+                    return true;
+                case "cmd":
+                    bean.setCmd(readString(p, ctxt));
+                    return true;
+                default:
+                    return false;
+            }
+        }
+    };
+
+    private static final BeanDeserializer<DataBody.GatewayInfo> GATEWAY_INFO_DESERIALIZER = new BeanDeserializer<DataBody.GatewayInfo>(DataBody.GatewayInfo.class) {
+        private static final long serialVersionUID = 1L;
+
+        @Override
+        DataBody.GatewayInfo create() {
+            return new DataBody.GatewayInfo();
+        }
+
+        @Override
+        boolean readProperty(DataBody.GatewayInfo bean, String name, JsonParser p, DeserializationContext ctxt) throws IOException {
+            switch (name) {
+                case "manufacturer":
+                    bean.setManufacturer(readString(p, ctxt));
+                    return true;
+                case "name":
+                    bean.setName(readString(p, ctxt));
+                    return true;
+                case "mac":
+                    bean.setMac(readString(p, ctxt));
+                    return true;
+                case "type":
+                    bean.setType(readInteger(p, ctxt));
+                    return true;
+                case "init":
+                    bean.setInit(readInteger(p, ctxt));
+                    return true;
+                case "mode":
+                    bean.setMode(readInteger(p, ctxt));
+                    return true;
+                case "swversion":
+                    bean.setSwversion(readString(p, ctxt));
+                    return true;
+                case "hwversion":
+                    bean.setHwversion(readString(p, ctxt));
+                    return true;
+                case "channel":
+                    bean.setChannel(readInteger(p, ctxt));
+                    return true;
+                case "netid":
+                    bean.setNetid(readInteger(p, ctxt));
+                    return true;
+                case "power":
+                    bean.setPower(readInteger(p, ctxt));
+                    return true;
+                case "userid":
+                    bean.setUserid(readInteger(p, ctxt));
+                    return true;
+                case "rawuserid":
+                    bean.setRawuserid(readInteger(p, ctxt));
+                    return true;
+                case "lightcount":
+                    bean.setLightcount(readInteger(p, ctxt));
+                    return true;
+                case "radioon":
+                    bean.setRadioon(readInteger(p, ctxt));
+                    return true;
+                case "wifimode":
+                    bean.setWifimode(readInteger(p, ctxt));
+                    return true;
+                case "wifissid":
+                    bean.setWifissid(readString(p, ctxt));
+                    return true;
+                case "wifipwd":
+                    bean.setWifipwd(readString(p, ctxt));
+                    return true;
+                case "connssid":
+                    bean.setConnssid(readString(p, ctxt));
+                    return true;
+                case "connpwd":
+                    bean.setConnpwd(readString(p, ctxt));
+                    return true;
+                case "autoupdate":
+                    bean.setAutoupdate(readInteger(p, ctxt));
+                    return true;
+                case "autobackup":
+                    bean.setAutobackup(readInteger(p, ctxt));
+                    return true;
+                case "wgkgilighton":
+                    bean.setWgkgilighton(readInteger(p, ctxt));
+                    return true;
+                case "wgkgilightsync":
+                    bean.setWgkgilightsync(readInteger(p, ctxt));
+                    return true;
+                case "geekmode":
+                    bean.setGeekmode(readInteger(p, ctxt));
+                    return true;
+                case "geekkey":
+                    bean.setGeekkey(readString(p, ctxt));
+                    return true;
+                case "remoteenable":
+                    bean.setRemoteenable(readInteger(p, ctxt));
+                    return true;
+                case "serverip":
+                    bean.setServerip(readString(p, ctxt));
+                    return true;
+                case "serverport":
+                    bean.setServerport(readInteger(p, ctxt));
+                    return true;
+                case "mapwidth":
+                    bean.setMapwidth(readInteger(p, ctxt));
+                    return true;
+                case "mapheight":
+                    bean.setMapheight(readInteger(p, ctxt));
+                    return true;
+                case "userdata":
+                    bean.setUserdata(readString(p, ctxt));
+                    return true;
+                case "serverconnected":
+                    bean.setServerconnected(readInteger(p, ctxt));
+                    return true;
+                case "reserve1":
+                    bean.setReserve1(readInteger(p, ctxt));
+                    return true;
+                case "reserve2":
+                    bean.setReserve2(readInteger(p, ctxt));
+                    return true;
+                case "reserve3":
+                    bean.setReserve3(readInteger(p, ctxt));
+                    return true;
+                default:
+                    return false;
+            }
+        }
+    };
+
+    private static final BeanDeserializer<DataBody> DATA_BODY_DESERIALIZER = new BeanDeserializer<DataBody>(DataBody.class) {
+        private static final long serialVersionUID = 1L;
+
+        @Override
+        DataBody create() {
+            return new DataBody();
+        }
+
+        @Override
+        boolean readProperty(DataBody bean, String name, JsonParser p, DeserializationContext ctxt) throws IOException {
+            switch (name) {
+                case "type":
+                    bean.setType(readString(p, ctxt));
+                    return true;
+                case "gateway_info":
+                    bean.setGatewayInfo(readBean(p, ctxt, GATEWAY_INFO_DESERIALIZER));
+                    return true;
+                case "hb":
+                    bean.setHb(readBean(p, ctxt, HB_DESERIALIZER));
+                    return true;
+                case "cmd":
+                    bean.setCmd(readBean(p, ctxt, CMD_INFO_DESERIALIZER));
+                    return true;
+                case "ack":
+                    bean.setAck(readBean(p, ctxt, ACK_INFO_DESERIALIZER));
+                    return true;
+                case "firmware_update":
+                    bean.setFirmwareUpdate(readBean(p, ctxt, FIRMWARE_DESERIALIZER));
+                    return true;
+                case "datafile_backup":
+                    bean.setDatafileBackup(readBean(p, ctxt, BACKUP_DESERIALIZER));
+                    return true;
+                case "datafile_recovery":
+                    bean.setDatafileRecovery(readBean(p, ctxt, RECOVERY_DESERIALIZER));
+                    return true;
+                case "utc":
+                    bean.setUtc(readLong(p, ctxt));
+                    return true;
+                case "status":
+                    bean.setStatus(readString(p, ctxt));
+                    return true;
+                default:
+                    return false;
+            }
+        }
+    };
+
+    private static final BeanDeserializer<Cmd> CMD_DESERIALIZER = new BeanDeserializer<Cmd>(Cmd.class) {
+        private static final long serialVersionUID = 1L;
+
+        @Override
+        Cmd create() {
+            return new Cmd();
+        }
+
+        @Override
+        boolean readProperty(Cmd bean, String name, JsonParser p, DeserializationContext ctxt) throws IOException {
+            switch (name) {
+                case "uuid":
+                    bean.setUuid(readString(p, ctxt));
+                    return true;
+                case "source":
+                    bean.setSource(readString(p, ctxt));
+                    return true;
+                case "sender":
+                    bean.setSender(readString(p, ctxt));
+                    return true;
+                case "user_id":
+                    bean.setUserId(readString(p, ctxt));
+                    return true;
+                case "receiver":
+                    bean.setReceiver(readString(p, ctxt));
+                    return true;
+                case "device":
+                    bean.setDevice(readString(p, ctxt));
+                    return true;
+                case "data_body":
+                    bean.setDataBody(readBean(p, ctxt, DATA_BODY_DESERIALIZER));
+                    return true;
+                case "expires":
+                    Integer expires = readInteger(p, ctxt);
+                    bean.setExpires(expires == null ? 0 : expires);
+                    return true;
+                case "timeout":
+                    bean.setTimeout(readInteger(p, ctxt));
+                    return true;
+                case "creation_time":
+                    bean.setCreationTime(readLong(p, ctxt));
+                    return true;
+                case "send_time":
+                    bean.setSendTime(readLong(p, ctxt));
+                    return true;
+                case "ack_time":
+                    bean.setAckTime(readLong(p, ctxt));
+                    return true;
+                case "acks":
+                    bean.setAcks(p.getCurrentToken() == JsonToken.VALUE_NULL ? null : ctxt.<Map<String, Long>>readValue(p, ACKS_TYPE));
+                    return true;
+                case "expect":
+                    bean.setExpect(readInteger(p, ctxt));
+                    return true;
+                case "forec_expired":
+                    bean.setForecExpired(p.getCurrentToken() == JsonToken.VALUE_NULL ? null : ctxt.readValue(p, Boolean.class));
+                    return true;
+                default:
+                    return false;
+            }
+        }
+    };
+
+    private static final JavaType ACKS_TYPE = TypeFactory.defaultInstance().constructMapType(Map.class, String.class, Long.class);
+}
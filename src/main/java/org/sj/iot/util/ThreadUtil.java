@@ -0,0 +1,102 @@
+package org.sj.iot.util;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 线程工具类，JDK21及以上使用虚拟线程，低版本JDK回退为平台线程
+ *
+ * @author shijian
+ * @email shijianws@163.com
+ * @date 2026-10-18
+ */
+public class ThreadUtil {
+    private static final Logger LOGGER = LoggerFactory.getLogger(ThreadUtil.class);
+
+    private static final Method NEW_VIRTUAL_EXECUTOR; // Executors.newThreadPerTaskExecutor(ThreadFactory)
+    private static final Object VIRTUAL_BUILDER; // Thread.ofVirtual()
+    private static final Method BUILDER_NAME; // Thread.Builder.name(String, long)
+    private static final Method BUILDER_FACTORY; // Thread.Builder.factory()
+
+    static {
+        Method newExecutor = null;
+        Object builder = null;
+        Method name = null;
+        Method factory = null;
+        try {
+            builder = Thread.class.getMethod("ofVirtual").invoke(null);
+            Class<?> builderClass = Class.forName("java.lang.Thread$Builder");
+            name = builderClass.getMethod("name", String.class, long.class);
+            factory = builderClass.getMethod("factory");
+            newExecutor = Executors.class.getMethod("newThreadPerTaskExecutor", ThreadFactory.class);
+        } catch (Exception e) {
+            if (LOGGER.isDebugEnabled()) {
+                LOGGER.debug("当前JDK不支持虚拟线程: {}", e.getMessage());
+            }
+            builder = null;
+        }
+        VIRTUAL_BUILDER = builder;
+        BUILDER_NAME = name;
+        BUILDER_FACTORY = factory;
+        NEW_VIRTUAL_EXECUTOR = newExecutor;
+    }
+
+    /**
+     * 当前JDK是否支持虚拟线程
+     */
+    public static boolean isVirtualThreadSupported() {
+        return VIRTUAL_BUILDER != null;
+    }
+
+    /**
+     * 创建线程工厂，支持虚拟线程时创建虚拟线程，否则创建守护平台线程
+     *
+     * @param prefix 线程名称前缀
+     */
+    public static ThreadFactory newThreadFactory(String prefix) {
+        if (VIRTUAL_BUILDER != null) {
+            try {
+                Object builder = BUILDER_NAME.invoke(VIRTUAL_BUILDER, prefix, 0L);
+                return (ThreadFactory) BUILDER_FACTORY.invoke(builder);
+            } catch (Exception e) {
+                if (LOGGER.isErrorEnabled()) {
+                    LOGGER.error("创建虚拟线程工厂失败: {}", e.getMessage());
+                }
+            }
+        }
+        AtomicLong counter = new AtomicLong();
+        return runnable -> {
+            Thread thread = new Thread(runnable, prefix + counter.getAndIncrement());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    /**
+     * 创建每个任务一个线程的执行器，支持虚拟线程时每个任务一个虚拟线程，否则使用可缓存的平台线程池
+     *
+     * @param prefix 线程名称前缀
+     */
+    public static ExecutorService newThreadPerTaskExecutor(String prefix) {
+        ThreadFactory factory = newThreadFactory(prefix);
+        if (NEW_VIRTUAL_EXECUTOR != null) {
+            try {
+                return (ExecutorService) NEW_VIRTUAL_EXECUTOR.invoke(null, factory);
+            } catch (Exception e) {
+                if (LOGGER.isErrorEnabled()) {
+                    LOGGER.error("创建虚拟线程执行器失败: {}", e.getMessage());
+                }
+            }
+        }
+        return Executors.newCachedThreadPool(factory);
+    }
+
+    private ThreadUtil() {
+    }
+}
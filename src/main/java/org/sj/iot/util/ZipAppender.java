@@ -0,0 +1,369 @@
+package org.sj.iot.util;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipException;
+import java.util.zip.ZipInputStream;
+
+/**
+ * ZIP增量追加工具，保留原有本地条目，只写入新条目并重写一份合并后的中央目录
+ * <p>
+ * 新条目从原中央目录位置开始写入，原中央目录记录原样拷贝(与新条目同名的记录除外，被替换条目的数据成为无效区域)，
+ * 追加的开销与新数据及中央目录大小成正比，与原压缩包大小无关。
+ * 没有中央目录的压缩包(旧版addZipEntry的输出)无法增量追加，顺序读取所有条目后重新生成。
+ * 文件追加会先覆盖原中央目录，写入过程中失败会损坏压缩包，需要时由调用方备份
+ *
+ * @author shijian
+ * @email shijianws@163.com
+ * @date 2026-10-18
+ */
+public final class ZipAppender {
+    static final int VERSION = 20; // 解压所需版本
+    static final int VERSION_ZIP64 = 45; // 使用ZIP64时解压所需版本
+    static final int FLAG_UTF8 = 0x800; // 条目名称使用UTF-8编码
+    private static final int ATTR_DIRECTORY = 0x10; // MS-DOS目录属性
+    static final long ZIP64_MAGIC = 0xFFFFFFFFL; // 字段值由ZIP64记录给出
+    private static final int ZIP64_MAGIC_COUNT = 0xFFFF;
+    private static final int ZIP64_END_LEN = 56;
+
+    private ZipAppender() {
+    }
+
+    /**
+     * 追加条目到内存中的压缩包，返回新的压缩包，原数组不变
+     *
+     * @param zip     原压缩包，为null或空时创建新压缩包
+     * @param entries 条目名称 -> 条目数据，与原条目同名时替换
+     */
+    public static byte[] append(byte[] zip, Map<String, byte[]> entries) throws IOException {
+        return append(zip, entries, Deflater.DEFAULT_COMPRESSION);
+    }
+
+    public static byte[] append(byte[] zip, Map<String, byte[]> entries, int level) throws IOException {
+        if (zip == null || zip.length == 0) {
+            Output out = new Output(estimateSize(entries));
+            writeTail(out, 0, null, entries, level);
+            return out.toByteArray();
+        }
+        ZipReader reader;
+        try {
+            reader = ZipReader.open(zip);
+        } catch (ZipException e) {
+            return rebuild(zip, entries, level); // 没有中央目录
+        }
+        int position = (int) reader.getCentralDirectoryOffset();
+        Output out = new Output(position + reader.getCentralDirectorySize() + estimateSize(entries));
+        out.write(zip, 0, position);
+        writeTail(out, 0, reader, entries, level);
+        return out.toByteArray();
+    }
+
+    /**
+     * 追加条目到文件，只写入新条目与中央目录，调用方负责打开(需读写权限)与关闭通道
+     *
+     * @param channel 压缩包文件通道，文件为空时创建新压缩包
+     * @param entries 条目名称 -> 条目数据，与原条目同名时替换
+     */
+    public static void append(FileChannel channel, Map<String, byte[]> entries) throws IOException {
+        append(channel, entries, Deflater.DEFAULT_COMPRESSION);
+    }
+
+    public static void append(FileChannel channel, Map<String, byte[]> entries, int level) throws IOException {
+        ZipReader reader = null;
+        long position = 0;
+        if (channel.size() > 0) {
+            try {
+                reader = ZipReader.open(channel);
+                position = reader.getCentralDirectoryOffset();
+            } catch (ZipException e) {
+                // 没有中央目录，读取整个文件重新生成
+                ByteBuffer buf = ByteBuffer.allocate((int) channel.size());
+                while (buf.hasRemaining()) {
+                    if (channel.read(buf, buf.position()) < 0) {
+                        throw new EOFException();
+                    }
+                }
+                byte[] zip = rebuild(buf.array(), entries, level);
+                write(channel, ByteBuffer.wrap(zip), 0);
+                channel.truncate(zip.length);
+                return;
+            }
+        }
+        Output out = new Output((reader == null ? 0 : reader.getCentralDirectorySize()) + estimateSize(entries));
+        writeTail(out, position, reader, entries, level);
+        write(channel, out.toByteBuffer(), position);
+        channel.truncate(position + out.size());
+    }
+
+    private static void write(FileChannel channel, ByteBuffer buf, long position) throws IOException {
+        while (buf.hasRemaining()) {
+            position += channel.write(buf, position);
+        }
+    }
+
+    /**
+     * 顺序读取没有中央目录的压缩包中的所有条目，与新条目合并后重新生成
+     */
+    private static byte[] rebuild(byte[] zip, Map<String, byte[]> entries, int level) throws IOException {
+        Map<String, byte[]> all = new LinkedHashMap<>();
+        try (ZipInputStream zis = new ZipInputStream(new ByteArrayInputStream(zip))) {
+            byte[] buffer = new byte[2048];
+            for (ZipEntry en; (en = zis.getNextEntry()) != null; ) {
+                ByteArrayOutputStream os = new ByteArrayOutputStream();
+                for (int len; (len = zis.read(buffer)) != -1; ) {
+                    os.write(buffer, 0, len);
+                }
+                all.put(en.getName(), os.toByteArray());
+            }
+        }
+        if (all.isEmpty()) {
+            throw new ZipException("不是合法的zip压缩包!");
+        }
+        if (entries != null) {
+            all.putAll(entries);
+        }
+        Output out = new Output(estimateSize(all));
+        writeTail(out, 0, null, all, level);
+        return out.toByteArray();
+    }
+
+    private static int estimateSize(Map<String, byte[]> entries) {
+        long size = ZipReader.END_LEN;
+        if (entries != null) {
+            for (Entry<String, byte[]> en : entries.entrySet()) {
+                size += ZipReader.LOCAL_HEADER_LEN + ZipReader.CENTRAL_HEADER_LEN + en.getKey().length() * 2L;
+                size += en.getValue() == null ? 0 : en.getValue().length / 2;
+            }
+        }
+        return (int) Math.min(size, Integer.MAX_VALUE - 8);
+    }
+
+    /**
+     * 写入新条目、合并后的中央目录与结束记录
+     *
+     * @param out      输出缓冲区
+     * @param position 输出缓冲区起始位置在压缩包中的位置
+     * @param reader   原压缩包，为null时只写入新条目
+     */
+    private static void writeTail(Output out, long position, ZipReader reader, Map<String, byte[]> entries, int level) throws IOException {
+        long delta = reader == null ? 0 : reader.getDelta(); // 新条目的偏移量与原记录保持同一基准
+        Output cd = new Output(estimateSize(entries));
+        long count = 0;
+        if (reader != null) {
+            ByteBuffer old = reader.read(reader.getCentralDirectoryOffset(), reader.getCentralDirectorySize());
+            for (int pos = 0; pos + ZipReader.CENTRAL_HEADER_LEN <= old.limit(); ) {
+                int nameLength = old.getShort(pos + 28) & 0xFFFF;
+                int length = ZipReader.CENTRAL_HEADER_LEN + nameLength + (old.getShort(pos + 30) & 0xFFFF) + (old.getShort(pos + 32) & 0xFFFF);
+                byte[] record = new byte[length];
+                ByteBuffer dup = old.duplicate();
+                dup.position(pos);
+                dup.get(record);
+                String name = new String(record, ZipReader.CENTRAL_HEADER_LEN, nameLength, Constants.UTF8_CHARSET);
+                if (entries == null || !entries.containsKey(name)) {
+                    cd.write(record);
+                    count++;
+                }
+                pos += length;
+            }
+        }
+        if (entries != null && !entries.isEmpty()) {
+            int dosTime = dosTime(LocalDateTime.now());
+            CRC32 crc32 = new CRC32();
+            Deflater deflater = new Deflater(level, true);
+            byte[] buf = new byte[1024];
+            try {
+                for (Entry<String, byte[]> en : entries.entrySet()) {
+                    byte[] name = en.getKey().getBytes(Constants.UTF8_CHARSET);
+                    byte[] data = en.getValue() == null ? new byte[0] : en.getValue();
+                    crc32.reset();
+                    crc32.update(data, 0, data.length);
+                    int crc = (int) crc32.getValue();
+                    int method = ZipReader.Entry.STORED;
+                    byte[] body = data;
+                    int bodyLength = data.length;
+                    if (data.length > 0) {
+                        deflater.reset();
+                        deflater.setInput(data);
+                        deflater.finish();
+                        int n = 0;
+                        while (!deflater.finished()) {
+                            if (n == buf.length) {
+                                buf = Arrays.copyOf(buf, buf.length << 1);
+                            }
+                            n += deflater.deflate(buf, n, buf.length - n);
+                        }
+                        if (n < data.length) { // 压缩无收益时直接存储
+                            method = ZipReader.Entry.DEFLATED;
+                            body = buf;
+                            bodyLength = n;
+                        }
+                    }
+                    long offset = position + out.size() - delta;
+                    writeLocalHeader(out, name, FLAG_UTF8, method, dosTime, crc, bodyLength, data.length, false);
+                    out.write(body, 0, bodyLength);
+                    writeCentralHeader(cd, name, FLAG_UTF8, method, dosTime, crc, bodyLength, data.length, offset);
+                    count++;
+                }
+            } finally {
+                deflater.end();
+            }
+        }
+        long cdOffset = position + out.size() - delta;
+        long cdSize = cd.size();
+        cd.writeTo(out);
+        writeEnd(out, count, cdSize, cdOffset, position + out.size() - delta);
+    }
+
+    /**
+     * 写入本地文件头
+     *
+     * @param zip64 是否添加ZIP64扩展字段，添加时长度字段固定为0xFFFFFFFF，实际长度写入扩展字段
+     */
+    static void writeLocalHeader(Output out, byte[] name, int flag, int method, int dosTime, int crc, long compressedSize, long size, boolean zip64) {
+        out.writeInt(ZipReader.LOCAL_HEADER_SIGNATURE);
+        out.writeShort(zip64 ? VERSION_ZIP64 : VERSION);
+        out.writeShort(flag);
+        out.writeShort(method);
+        out.writeInt(dosTime);
+        out.writeInt(crc);
+        out.writeInt((int) (zip64 ? ZIP64_MAGIC : compressedSize));
+        out.writeInt((int) (zip64 ? ZIP64_MAGIC : size));
+        out.writeShort(name.length);
+        out.writeShort(zip64 ? 20 : 0);
+        out.write(name);
+        if (zip64) {
+            out.writeShort(ZipReader.ZIP64_EXTRA_ID);
+            out.writeShort(16);
+            out.writeLong(size);
+            out.writeLong(compressedSize);
+        }
+    }
+
+    /**
+     * 写入中央目录文件头，长度或偏移量超出4字节范围时添加ZIP64扩展字段
+     */
+    static void writeCentralHeader(Output cd, byte[] name, int flag, int method, int dosTime, int crc, long compressedSize, long size, long offset) {
+        int extraLength = (size >= ZIP64_MAGIC ? 8 : 0) + (compressedSize >= ZIP64_MAGIC ? 8 : 0) + (offset >= ZIP64_MAGIC ? 8 : 0);
+        int version = extraLength > 0 ? VERSION_ZIP64 : VERSION;
+        cd.writeInt(ZipReader.CENTRAL_HEADER_SIGNATURE);
+        cd.writeShort(version);
+        cd.writeShort(version);
+        cd.writeShort(flag);
+        cd.writeShort(method);
+        cd.writeInt(dosTime);
+        cd.writeInt(crc);
+        cd.writeInt((int) Math.min(compressedSize, ZIP64_MAGIC));
+        cd.writeInt((int) Math.min(size, ZIP64_MAGIC));
+        cd.writeShort(name.length);
+        cd.writeShort(extraLength > 0 ? extraLength + 4 : 0);
+        cd.writeShort(0); // 注释长度
+        cd.writeShort(0); // 磁盘号
+        cd.writeShort(0); // 内部属性
+        cd.writeInt(name.length > 0 && name[name.length - 1] == '/' ? ATTR_DIRECTORY : 0);
+        cd.writeInt((int) Math.min(offset, ZIP64_MAGIC));
+        cd.write(name);
+        if (extraLength > 0) {
+            // 按原始长度、压缩后长度、偏移量的顺序只包含超出范围的字段
+            cd.writeShort(ZipReader.ZIP64_EXTRA_ID);
+            cd.writeShort(extraLength);
+            if (size >= ZIP64_MAGIC) {
+                cd.writeLong(size);
+            }
+            if (compressedSize >= ZIP64_MAGIC) {
+                cd.writeLong(compressedSize);
+            }
+            if (offset >= ZIP64_MAGIC) {
+                cd.writeLong(offset);
+            }
+        }
+    }
+
+    /**
+     * 写入中央目录结束记录，条目数、中央目录长度或位置超出范围时先写入ZIP64结束记录与定位器
+     *
+     * @param endOffset 结束记录在压缩包中的位置
+     */
+    static void writeEnd(Output out, long count, long cdSize, long cdOffset, long endOffset) {
+        if (count >= ZIP64_MAGIC_COUNT || cdSize >= ZIP64_MAGIC || cdOffset >= ZIP64_MAGIC) {
+            out.writeInt(ZipReader.ZIP64_END_SIGNATURE);
+            out.writeLong(ZIP64_END_LEN - 12); // 记录长度，不包括签名与本字段
+            out.writeShort(VERSION_ZIP64);
+            out.writeShort(VERSION_ZIP64);
+            out.writeInt(0);
+            out.writeInt(0);
+            out.writeLong(count);
+            out.writeLong(count);
+            out.writeLong(cdSize);
+            out.writeLong(cdOffset);
+            out.writeInt(ZipReader.ZIP64_LOCATOR_SIGNATURE);
+            out.writeInt(0);
+            out.writeLong(endOffset);
+            out.writeInt(1);
+        }
+        out.writeInt(ZipReader.END_SIGNATURE);
+        out.writeShort(0);
+        out.writeShort(0);
+        out.writeShort((int) Math.min(count, ZIP64_MAGIC_COUNT));
+        out.writeShort((int) Math.min(count, ZIP64_MAGIC_COUNT));
+        out.writeInt((int) Math.min(cdSize, ZIP64_MAGIC));
+        out.writeInt((int) Math.min(cdOffset, ZIP64_MAGIC));
+        out.writeShort(0); // 注释长度
+    }
+
+    /**
+     * MS-DOS格式的日期时间，高16位为日期，低16位为时间
+     */
+    static int dosTime(LocalDateTime time) {
+        int year = Math.max(time.getYear(), 1980);
+        int date = (year - 1980) << 9 | time.getMonthValue() << 5 | time.getDayOfMonth();
+        return date << 16 | time.getHour() << 11 | time.getMinute() << 5 | time.getSecond() >> 1;
+    }
+
+    /**
+     * 小端序输出缓冲区
+     */
+    static final class Output extends ByteArrayOutputStream {
+        Output(int size) {
+            super(Math.max(size, 32));
+        }
+
+        void writeShort(int v) {
+            write(v);
+            write(v >>> 8);
+        }
+
+        void writeInt(int v) {
+            writeShort(v);
+            writeShort(v >>> 16);
+        }
+
+        void writeLong(long v) {
+            writeInt((int) v);
+            writeInt((int) (v >>> 32));
+        }
+
+        @Override
+        public void write(byte[] b) {
+            write(b, 0, b.length);
+        }
+
+        /**
+         * 包装已写入的数据，不拷贝
+         */
+        ByteBuffer toByteBuffer() {
+            return ByteBuffer.wrap(buf, 0, count);
+        }
+    }
+}
@@ -0,0 +1,139 @@
+package org.sj.iot.util;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.zip.Adler32;
+
+/**
+ * zlib预置压缩字典
+ * <p>
+ * 字典ID为字典内容的Adler32校验值，由zlib写入压缩流头部(FDICT/DICTID)，解压时根据ID从注册表中查找字典，
+ * 因此报文格式无需改变，未使用字典的压缩数据不受影响。字典内容一经发布不可修改，新增字段时发布新版本字典并同时注册
+ *
+ * @author shijian
+ * @email shijianws@163.com
+ * @date 2026-10-18
+ */
+public final class ZipDictionary {
+    private static final int MAX_SIZE = 32 * 1024; // deflate窗口大小，超出部分不会被引用
+
+    /**
+     * 基于DataBody、GatewayInfo、Cmd字段名生成的默认字典，出现频率越高的片段越靠近字典尾部
+     */
+    public static final ZipDictionary DEFAULT = new ZipDictionary("iot-v1", (""
+            + "\"reserve1\":0,\"reserve2\":0,\"reserve3\":0,\"mapwidth\":\"mapheight\":\"userdata\":\"{}\","
+            + "\"geekmode\":0,\"geekkey\":\"wgkgilighton\":0,\"wgkgilightsync\":0,\"remoteenable\":1,"
+            + "\"autoupdate\":1,\"autobackup\":1,\"wifimode\":1,\"wifissid\":\"wifipwd\":\"connssid\":\"connpwd\":"
+            + "\"channel\":\"netid\":\"power\":\"userid\":\"rawuserid\":\"lightcount\":\"radioon\":1,"
+            + "\"serverip\":\"serverport\":\"serverconnected\":1,"
+            + "{\"type\":\"gateway_info\",\"gateway_info\":{\"manufacturer\":\"name\":\"mac\":\"type\":1,\"init\":1,\"mode\":"
+            + "\"swversion\":\"hwversion\":\"firmware_url\":\"firmware_md5\":\"version\":\"backup_url\":\"recovery_url\":\"recovery_md5\":"
+            + "{\"type\":\"firmware_update\",\"firmware_update\":{\"type\":\"datafile_backup\",\"datafile_backup\":"
+            + "{\"type\":\"datafile_recovery\",\"datafile_recovery\":{\"type\":\"newdevices\","
+            + "{\"uuid\":\"sender\":\"user_id\":\"receiver\":\"device\":\"data_body\":\"expires\":0,\"creation_time\":\"expired\":false}"
+            + "{\"type\":\"hb\",\"hb\":{\"totalram\":\"freeram\":\"totaldisk\":\"freedisk\":"
+            + "\"result\":0,\"errormsg\":\"ok\",\"cmd\":\"token\":"
+            + "{\"type\":\"remote_control\",\"cmd\":{\"dataid\":\"data\":\"data_length\":\"unzip_data_length\":}},"
+            + "{\"type\":\"remote_control\",\"ack\":{\"dataid\":\"data\":\"data_length\":\"unzip_data_length\":"
+            + "{\"type\":\"hb\",\"utc\":\"status\":\"ok\"}").getBytes(Constants.UTF8_CHARSET));
+
+    private static final Map<Integer, ZipDictionary> REGISTRY = new ConcurrentHashMap<>(); // 字典ID -> 字典
+
+    static {
+        register(DEFAULT);
+    }
+
+    private final String name; // 字典名称
+    final byte[] data; // 字典内容
+    private final int id; // 字典ID，即字典内容的Adler32校验值
+
+    public ZipDictionary(String name, byte[] data) {
+        if (data == null || data.length == 0) {
+            throw new IllegalArgumentException("压缩字典内容不能为空!");
+        }
+        if (data.length > MAX_SIZE) {
+            throw new IllegalArgumentException(String.format("压缩字典长度不能超过%d字节: %d", MAX_SIZE, data.length));
+        }
+        this.name = name;
+        this.data = data.clone();
+        Adler32 adler32 = new Adler32();
+        adler32.update(this.data, 0, this.data.length);
+        this.id = (int) adler32.getValue();
+    }
+
+    /**
+     * 注册字典，解压时根据压缩流中的字典ID自动查找
+     *
+     * @throws IllegalStateException 已注册相同ID但内容不同的字典
+     */
+    public static ZipDictionary register(ZipDictionary dictionary) {
+        ZipDictionary exists = REGISTRY.putIfAbsent(dictionary.id, dictionary);
+        if (exists != null && !Arrays.equals(exists.data, dictionary.data)) {
+            throw new IllegalStateException(String.format("压缩字典ID冲突: %08x, %s, %s", dictionary.id, exists.name, dictionary.name));
+        }
+        return exists == null ? dictionary : exists;
+    }
+
+    /**
+     * 根据字典ID获取已注册的字典
+     *
+     * @return 未注册返回null
+     */
+    public static ZipDictionary get(int id) {
+        return REGISTRY.get(id);
+    }
+
+    /**
+     * 从文件加载字典，文件名作为字典名称
+     */
+    public static ZipDictionary load(Path path) throws IOException {
+        return new ZipDictionary(path.getFileName().toString(), Files.readAllBytes(path));
+    }
+
+    /**
+     * 保存字典内容到文件
+     */
+    public void save(Path path) throws IOException {
+        Files.write(path, data);
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public int getId() {
+        return id;
+    }
+
+    /**
+     * 获取字典ID的十六进制表现形式
+     */
+    public String getIdHex() {
+        return String.format("%08x", id);
+    }
+
+    public int getSize() {
+        return data.length;
+    }
+
+    /**
+     * 拷贝一份字典内容
+     */
+    public byte[] getData() {
+        return data.clone();
+    }
+
+    @Override
+    public String toString() {
+        final StringBuilder sb = new StringBuilder("ZipDictionary{");
+        sb.append("name=").append(name);
+        sb.append(", id=").append(getIdHex());
+        sb.append(", size=").append(data.length);
+        sb.append('}');
+        return sb.toString();
+    }
+}
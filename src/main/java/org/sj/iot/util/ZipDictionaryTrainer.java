@@ -0,0 +1,211 @@
+package org.sj.iot.util;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * zlib预置字典训练工具，从抓取的业务数据中选出最常出现的片段生成网关集群专用字典
+ * <p>
+ * 统计每个8字节片段在多少个样本中出现，将所有样本按字典大小划分为若干区间，每个区间选出得分最高的一段，
+ * 已选片段不再计分；得分越高的段越靠近字典尾部，deflate引用距离越短。字典ID为内容的Adler32，内容不同即为不同版本
+ * <p>
+ * 参数: 输出文件 字典大小 样本文件...，样本文件每行一条未压缩的JSON数据体
+ *
+ * @author shijian
+ * @email shijianws@163.com
+ * @date 2026-10-18
+ */
+public class ZipDictionaryTrainer {
+    private static final int K = 8; // 统计片段长度
+
+    private final int dictionarySize; // 字典大小
+    private final int segmentSize; // 每次选取的段长度
+    private final List<byte[]> samples = new ArrayList<>();
+
+    public ZipDictionaryTrainer(int dictionarySize) {
+        this(dictionarySize, 64);
+    }
+
+    public ZipDictionaryTrainer(int dictionarySize, int segmentSize) {
+        if (dictionarySize <= 0 || segmentSize < K || segmentSize > dictionarySize) {
+            throw new IllegalArgumentException(String.format("字典大小或段长度不合法: %d, %d", dictionarySize, segmentSize));
+        }
+        this.dictionarySize = dictionarySize;
+        this.segmentSize = segmentSize;
+    }
+
+    /**
+     * 添加一个样本
+     */
+    public void addSample(byte[] sample) {
+        if (sample != null && sample.length > 0) {
+            samples.add(sample);
+        }
+    }
+
+    /**
+     * 添加样本文件中的所有样本，每行一个样本
+     */
+    public void addSamples(Path file) throws IOException {
+        try (BufferedReader reader = Files.newBufferedReader(file, Constants.UTF8_CHARSET)) {
+            for (String line; (line = reader.readLine()) != null; ) {
+                line = line.trim();
+                if (!line.isEmpty()) {
+                    addSample(line.getBytes(Constants.UTF8_CHARSET));
+                }
+            }
+        }
+    }
+
+    public int getSampleCount() {
+        return samples.size();
+    }
+
+    /**
+     * 训练字典
+     */
+    public ZipDictionary train(String name) {
+        if (samples.isEmpty()) {
+            throw new IllegalStateException("没有训练样本!");
+        }
+        Map<Long, Integer> frequency = countFrequency();
+        int total = 0;
+        for (byte[] sample : samples) {
+            total += sample.length;
+        }
+        byte[] all = new byte[total];
+        int offset = 0;
+        for (byte[] sample : samples) {
+            System.arraycopy(sample, 0, all, offset, sample.length);
+            offset += sample.length;
+        }
+        // 每个区间选出一段
+        int epochs = Math.max(1, Math.min(dictionarySize / segmentSize, total / segmentSize));
+        int epochSize = total / epochs;
+        List<long[]> segments = new ArrayList<>(); // [得分, 起始位置]
+        for (int i = 0; i < epochs; i++) {
+            int from = i * epochSize;
+            int to = Math.min(total, from + epochSize + segmentSize - 1);
+            long[] best = selectSegment(all, from, to, frequency);
+            if (best != null) {
+                segments.add(best);
+                for (int j = (int) best[1], end = j + segmentSize - K; j <= end; j++) {
+                    frequency.remove(kmer(all, j)); // 已选片段不再计分
+                }
+            }
+        }
+        if (segments.isEmpty()) {
+            throw new IllegalStateException("样本中没有重复出现的片段，无法训练字典!");
+        }
+        segments.sort((a, b) -> Long.compare(a[0], b[0])); // 得分高的靠近字典尾部
+        byte[] dictionary = new byte[segments.size() * segmentSize];
+        offset = 0;
+        for (long[] segment : segments) {
+            System.arraycopy(all, (int) segment[1], dictionary, offset, segmentSize);
+            offset += segmentSize;
+        }
+        int size = Math.min(dictionarySize, dictionary.length);
+        byte[] data = new byte[size];
+        System.arraycopy(dictionary, dictionary.length - size, data, 0, size);
+        return new ZipDictionary(name, data);
+    }
+
+    /**
+     * 统计每个片段出现在多少个样本中，只出现在一个样本中的片段不参与计分
+     */
+    private Map<Long, Integer> countFrequency() {
+        Map<Long, Integer> frequency = new HashMap<>();
+        Set<Long> seen = new HashSet<>();
+        for (byte[] sample : samples) {
+            seen.clear();
+            for (int i = 0, end = sample.length - K; i <= end; i++) {
+                Long kmer = kmer(sample, i);
+                if (seen.add(kmer)) {
+                    frequency.merge(kmer, 1, Integer::sum);
+                }
+            }
+        }
+        frequency.values().removeIf(count -> count < 2);
+        return frequency;
+    }
+
+    /**
+     * 在[from, to)中滑动选取得分最高的段
+     *
+     * @return [得分, 起始位置]，没有得分大于0的段返回null
+     */
+    private long[] selectSegment(byte[] all, int from, int to, Map<Long, Integer> frequency) {
+        int positions = segmentSize - K + 1; // 每段包含的片段数
+        if (to - from < segmentSize) {
+            return null;
+        }
+        long score = 0;
+        for (int j = from; j < from + positions; j++) {
+            score += frequency.getOrDefault(kmer(all, j), 0);
+        }
+        long bestScore = score;
+        int bestStart = from;
+        for (int start = from + 1, last = to - segmentSize; start <= last; start++) {
+            score -= frequency.getOrDefault(kmer(all, start - 1), 0);
+            score += frequency.getOrDefault(kmer(all, start + positions - 1), 0);
+            if (score > bestScore) {
+                bestScore = score;
+                bestStart = start;
+            }
+        }
+        return bestScore > 0 ? new long[]{bestScore, bestStart} : null;
+    }
+
+    private static long kmer(byte[] bs, int index) {
+        long value = 0;
+        for (int i = 0; i < K; i++) {
+            value = value << 8 | bs[index + i] & 0xFF;
+        }
+        return value;
+    }
+
+    /**
+     * 计算所有样本逐个压缩后的总长度
+     *
+     * @param dictionary 预置字典，为null时不使用字典
+     */
+    public long evaluate(ZipDictionary dictionary) {
+        long total = 0;
+        for (byte[] sample : samples) {
+            total += ZipUtil.compress(sample, dictionary).length;
+        }
+        return total;
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 3) {
+            System.out.println("参数: 输出文件 字典大小 样本文件...");
+            return;
+        }
+        Path output = Paths.get(args[0]);
+        int size = Integer.parseInt(args[1]);
+        ZipDictionaryTrainer trainer = new ZipDictionaryTrainer(size);
+        long raw = 0;
+        for (int i = 2; i < args.length; i++) {
+            trainer.addSamples(Paths.get(args[i]));
+        }
+        for (byte[] sample : trainer.samples) {
+            raw += sample.length;
+        }
+        ZipDictionary dictionary = trainer.train(output.getFileName().toString());
+        dictionary.save(output);
+        System.out.printf("样本数: %d, 原始数据: %d字节%n", trainer.getSampleCount(), raw);
+        System.out.printf("无字典压缩: %d字节%n", trainer.evaluate(null));
+        System.out.printf("默认字典[%s]压缩: %d字节%n", ZipDictionary.DEFAULT.getIdHex(), trainer.evaluate(ZipDictionary.DEFAULT));
+        System.out.printf("训练字典[%s]压缩: %d字节, 字典大小: %d字节, 已保存到: %s%n", dictionary.getIdHex(), trainer.evaluate(dictionary), dictionary.getSize(), output);
+    }
+}
@@ -0,0 +1,537 @@
+package org.sj.iot.util;
+
+import java.io.Closeable;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.channels.SeekableByteChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.CRC32;
+import java.util.zip.DataFormatException;
+import java.util.zip.Inflater;
+import java.util.zip.ZipException;
+
+/**
+ * ZIP随机读取器，解析中央目录后按偏移量直接读取指定条目，不需要顺序扫描整个压缩包
+ * <p>
+ * 支持byte[]、ByteBuffer(包括内存映射文件)与SeekableByteChannel，支持ZIP64，
+ * 条目压缩方式支持STORED与DEFLATED，不支持加密条目。实例创建后线程安全
+ *
+ * @author shijian
+ * @email shijianws@163.com
+ * @date 2026-10-18
+ */
+public class ZipReader implements Closeable {
+    static final int LOCAL_HEADER_SIGNATURE = 0x04034b50; // 本地文件头
+    static final int CENTRAL_HEADER_SIGNATURE = 0x02014b50; // 中央目录文件头
+    static final int END_SIGNATURE = 0x06054b50; // 中央目录结束记录
+    static final int ZIP64_END_SIGNATURE = 0x06064b50; // ZIP64中央目录结束记录
+    static final int ZIP64_LOCATOR_SIGNATURE = 0x07064b50; // ZIP64中央目录结束记录定位器
+    static final int LOCAL_HEADER_LEN = 30;
+    static final int CENTRAL_HEADER_LEN = 46;
+    static final int END_LEN = 22;
+    static final int ZIP64_LOCATOR_LEN = 20;
+    static final int ZIP64_EXTRA_ID = 0x0001;
+    private static final int MAX_COMMENT_LEN = 0xFFFF;
+
+    private final Source source;
+    private final Map<String, Entry> entries; // 条目名称 -> 条目，保持中央目录顺序
+    private final long centralDirectoryOffset; // 中央目录起始位置
+    private final int centralDirectorySize; // 中央目录长度
+    private final long delta; // 前置数据长度，记录中的偏移量加上该值为实际位置
+
+    private ZipReader(Source source) throws IOException {
+        this.source = source;
+        long endPosition = findEnd();
+        ByteBuffer end = read(endPosition, END_LEN);
+        long count = end.getShort(10) & 0xFFFFL;
+        long size = end.getInt(12) & 0xFFFFFFFFL;
+        long offset = end.getInt(16) & 0xFFFFFFFFL;
+        long cdEnd = endPosition; // 中央目录之后的记录位置
+        if (count == 0xFFFF || size == 0xFFFFFFFFL || offset == 0xFFFFFFFFL) {
+            long zip64Position = findZip64End(endPosition);
+            if (zip64Position >= 0) {
+                ByteBuffer zip64 = read(zip64Position, 56);
+                count = zip64.getLong(32);
+                size = zip64.getLong(40);
+                offset = zip64.getLong(48);
+                cdEnd = zip64Position;
+            }
+        }
+        // 压缩包前有其它数据(如自解压程序)时，记录中的偏移量与实际位置相差固定值
+        long delta = cdEnd - size - offset;
+        if (size > Integer.MAX_VALUE || delta < 0 || offset + delta + size > source.size()) {
+            throw new ZipException("中央目录位置不合法!");
+        }
+        this.centralDirectoryOffset = offset + delta;
+        this.centralDirectorySize = (int) size;
+        this.delta = delta;
+        this.entries = parseCentralDirectory(read(centralDirectoryOffset, (int) size), count, delta);
+    }
+
+    /**
+     * 读取内存中的压缩包
+     */
+    public static ZipReader open(byte[] zip) throws IOException {
+        return new ZipReader(new BufferSource(ByteBuffer.wrap(zip)));
+    }
+
+    /**
+     * 读取缓冲区position到limit部分的压缩包，不改变缓冲区position
+     */
+    public static ZipReader open(ByteBuffer zip) throws IOException {
+        return new ZipReader(new BufferSource(zip.slice()));
+    }
+
+    /**
+     * 读取文件，小于2GB时使用内存映射，否则通过文件通道按需读取
+     */
+    public static ZipReader open(Path path) throws IOException {
+        FileChannel channel = FileChannel.open(path, StandardOpenOption.READ);
+        try {
+            if (channel.size() <= Integer.MAX_VALUE) {
+                ByteBuffer mapped = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+                channel.close(); // 映射在通道关闭后仍然有效
+                return new ZipReader(new BufferSource(mapped));
+            }
+            return new ZipReader(new ChannelSource(channel));
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    /**
+     * 通过可定位通道读取，关闭读取器时不关闭通道
+     */
+    public static ZipReader open(SeekableByteChannel channel) throws IOException {
+        return new ZipReader(new ChannelSource(channel));
+    }
+
+    /**
+     * 从尾部向前查找中央目录结束记录，记录连同注释必须位于压缩包末尾
+     * <p>
+     * 未调用finish的ZipOutputStream输出(如旧版addZipEntry)没有中央目录，此时抛出ZipException，需顺序扫描读取
+     *
+     * @return 记录的起始位置
+     */
+    private long findEnd() throws IOException {
+        long size = source.size();
+        if (size < END_LEN) {
+            throw new ZipException("不是合法的zip压缩包!");
+        }
+        int length = (int) Math.min(size, END_LEN + MAX_COMMENT_LEN);
+        long start = size - length;
+        ByteBuffer tail = read(start, length);
+        for (int i = length - END_LEN; i >= 0; i--) {
+            if (tail.getInt(i) == END_SIGNATURE && i + END_LEN + (tail.getShort(i + 20) & 0xFFFF) == length) {
+                return start + i;
+            }
+        }
+        throw new ZipException("未找到zip中央目录结束记录!");
+    }
+
+    /**
+     * 根据定位器查找ZIP64中央目录结束记录，定位器紧挨在中央目录结束记录之前
+     *
+     * @return 记录的起始位置，不是ZIP64压缩包返回-1
+     */
+    private long findZip64End(long endPosition) throws IOException {
+        if (endPosition < ZIP64_LOCATOR_LEN) {
+            return -1;
+        }
+        ByteBuffer locator = read(endPosition - ZIP64_LOCATOR_LEN, ZIP64_LOCATOR_LEN);
+        if (locator.getInt(0) != ZIP64_LOCATOR_SIGNATURE) {
+            return -1;
+        }
+        // 记录固定在定位器之前，定位器中的偏移量可能未计入前置数据
+        long position = endPosition - ZIP64_LOCATOR_LEN - 56;
+        if (position < 0 || read(position, 4).getInt(0) != ZIP64_END_SIGNATURE) {
+            position = locator.getLong(8);
+            if (position < 0 || position + 56 > source.size() || read(position, 4).getInt(0) != ZIP64_END_SIGNATURE) {
+                throw new ZipException("ZIP64中央目录结束记录不合法!");
+            }
+        }
+        return position;
+    }
+
+    private static Map<String, Entry> parseCentralDirectory(ByteBuffer cd, long count, long delta) throws ZipException {
+        Map<String, Entry> entries = new LinkedHashMap<>((int) Math.min(count, 1 << 16) * 4 / 3 + 1);
+        int pos = 0;
+        while (pos + CENTRAL_HEADER_LEN <= cd.limit()) {
+            if (cd.getInt(pos) != CENTRAL_HEADER_SIGNATURE) {
+                throw new ZipException(String.format("中央目录文件头不合法: %d", pos));
+            }
+            int flag = cd.getShort(pos + 8) & 0xFFFF;
+            int method = cd.getShort(pos + 10) & 0xFFFF;
+            int crc = cd.getInt(pos + 16);
+            long compressedSize = cd.getInt(pos + 20) & 0xFFFFFFFFL;
+            long size = cd.getInt(pos + 24) & 0xFFFFFFFFL;
+            int nameLength = cd.getShort(pos + 28) & 0xFFFF;
+            int extraLength = cd.getShort(pos + 30) & 0xFFFF;
+            int commentLength = cd.getShort(pos + 32) & 0xFFFF;
+            long offset = cd.getInt(pos + 42) & 0xFFFFFFFFL;
+            int next = pos + CENTRAL_HEADER_LEN + nameLength + extraLength + commentLength;
+            if (next > cd.limit()) {
+                throw new ZipException("中央目录长度不合法!");
+            }
+            byte[] name = new byte[nameLength];
+            ByteBuffer dup = cd.duplicate();
+            dup.position(pos + CENTRAL_HEADER_LEN);
+            dup.get(name);
+            // ZIP64扩展字段按顺序只包含值为0xFFFFFFFF的字段
+            int extra = pos + CENTRAL_HEADER_LEN + nameLength;
+            for (int end = extra + extraLength; extra + 4 <= end; ) {
+                int id = cd.getShort(extra) & 0xFFFF;
+                int length = cd.getShort(extra + 2) & 0xFFFF;
+                if (id == ZIP64_EXTRA_ID) {
+                    int p = extra + 4;
+                    if (size == 0xFFFFFFFFL && p + 8 <= end) {
+                        size = cd.getLong(p);
+                        p += 8;
+                    }
+                    if (compressedSize == 0xFFFFFFFFL && p + 8 <= end) {
+                        compressedSize = cd.getLong(p);
+                        p += 8;
+                    }
+                    if (offset == 0xFFFFFFFFL && p + 8 <= end) {
+                        offset = cd.getLong(p);
+                    }
+                    break;
+                }
+                extra += 4 + length;
+            }
+            Entry entry = new Entry(new String(name, Constants.UTF8_CHARSET), flag, method, crc, compressedSize, size, offset + delta);
+            entries.putIfAbsent(entry.name, entry);
+            pos = next;
+        }
+        return entries;
+    }
+
+    /**
+     * 获取所有条目，按中央目录顺序
+     */
+    public List<Entry> getEntries() {
+        return Collections.unmodifiableList(new ArrayList<>(entries.values()));
+    }
+
+    /**
+     * 获取条目数
+     */
+    public int size() {
+        return entries.size();
+    }
+
+    /**
+     * 根据名称获取条目
+     *
+     * @return 不存在返回null
+     */
+    public Entry getEntry(String name) {
+        return entries.get(name);
+    }
+
+    /**
+     * 根据名称获取条目，忽略大小写
+     *
+     * @return 不存在返回null
+     */
+    public Entry getEntryIgnoreCase(String name) {
+        Entry entry = entries.get(name);
+        if (entry == null) {
+            for (Entry en : entries.values()) {
+                if (en.name.equalsIgnoreCase(name)) {
+                    return en;
+                }
+            }
+        }
+        return entry;
+    }
+
+    /**
+     * 获取中央目录起始位置，即所有本地条目数据的结束位置
+     */
+    public long getCentralDirectoryOffset() {
+        return centralDirectoryOffset;
+    }
+
+    int getCentralDirectorySize() {
+        return centralDirectorySize;
+    }
+
+    long getDelta() {
+        return delta;
+    }
+
+    /**
+     * 获取条目数据体在压缩包中的起始位置
+     */
+    long getDataOffset(Entry entry) throws IOException {
+        ByteBuffer header = read(entry.localHeaderOffset, LOCAL_HEADER_LEN);
+        if (header.getInt(0) != LOCAL_HEADER_SIGNATURE) {
+            throw new ZipException(String.format("条目[%s]的本地文件头不合法!", entry.name));
+        }
+        int nameLength = header.getShort(26) & 0xFFFF;
+        int extraLength = header.getShort(28) & 0xFFFF;
+        return entry.localHeaderOffset + LOCAL_HEADER_LEN + nameLength + extraLength;
+    }
+
+    /**
+     * 读取条目未压缩的原始数据，并校验CRC32
+     */
+    public byte[] read(Entry entry) throws IOException {
+        if (entry.isEncrypted()) {
+            throw new ZipException(String.format("不支持加密条目: %s", entry.name));
+        }
+        if (entry.size > Integer.MAX_VALUE || entry.compressedSize > Integer.MAX_VALUE) {
+            throw new ZipException(String.format("条目[%s]过大，无法读取到数组: %d", entry.name, entry.size));
+        }
+        ByteBuffer compressed = read(getDataOffset(entry), (int) entry.compressedSize);
+        byte[] data;
+        if (entry.method == Entry.STORED) {
+            data = new byte[compressed.remaining()];
+            compressed.get(data);
+        } else if (entry.method == Entry.DEFLATED) {
+            data = inflate(entry, compressed);
+        } else {
+            throw new ZipException(String.format("不支持的压缩方式: %d, %s", entry.method, entry.name));
+        }
+        CRC32 crc32 = new CRC32();
+        crc32.update(data, 0, data.length);
+        if ((int) crc32.getValue() != entry.crc) {
+            throw new ZipException(String.format("条目[%s]CRC32校验失败!", entry.name));
+        }
+        return data;
+    }
+
+    /**
+     * 根据名称读取条目未压缩的原始数据
+     *
+     * @return 条目不存在返回null
+     */
+    public byte[] read(String name) throws IOException {
+        Entry entry = getEntry(name);
+        return entry == null ? null : read(entry);
+    }
+
+    private static byte[] inflate(Entry entry, ByteBuffer compressed) throws ZipException {
+        byte[] input = new byte[compressed.remaining()];
+        compressed.get(input);
+        byte[] data = new byte[(int) entry.size];
+        Inflater inflater = new Inflater(true);
+        try {
+            inflater.setInput(input);
+            int n = 0;
+            while (!inflater.finished() && n < data.length) {
+                int len = inflater.inflate(data, n, data.length - n);
+                if (len == 0 && inflater.needsInput()) {
+                    break;
+                }
+                n += len;
+            }
+            if (n != data.length) {
+                throw new ZipException(String.format("条目[%s]解压长度不一致: %d, %d", entry.name, n, data.length));
+            }
+            return data;
+        } catch (DataFormatException e) {
+            throw new ZipException(String.format("条目[%s]解压失败: %s", entry.name, e.getMessage()));
+        } finally {
+            inflater.end();
+        }
+    }
+
+    /**
+     * 读取[position, position + length)，返回小端序缓冲区
+     */
+    ByteBuffer read(long position, int length) throws IOException {
+        if (position < 0 || position + length > source.size()) {
+            throw new EOFException(String.format("读取位置超出压缩包范围: %d, %d", position, length));
+        }
+        ByteBuffer buf = source.read(position, length);
+        return buf.order(ByteOrder.LITTLE_ENDIAN);
+    }
+
+    @Override
+    public void close() throws IOException {
+        source.close();
+    }
+
+    /**
+     * 压缩包条目
+     */
+    public static final class Entry {
+        public static final int STORED = 0;
+        public static final int DEFLATED = 8;
+
+        private final String name; // 条目名称
+        private final int flag; // 通用标志位
+        private final int method; // 压缩方式
+        private final int crc; // 原始数据CRC32
+        private final long compressedSize; // 压缩后长度
+        private final long size; // 原始长度
+        private final long localHeaderOffset; // 本地文件头位置
+
+        Entry(String name, int flag, int method, int crc, long compressedSize, long size, long localHeaderOffset) {
+            this.name = name;
+            this.flag = flag;
+            this.method = method;
+            this.crc = crc;
+            this.compressedSize = compressedSize;
+            this.size = size;
+            this.localHeaderOffset = localHeaderOffset;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public int getFlag() {
+            return flag;
+        }
+
+        public int getMethod() {
+            return method;
+        }
+
+        public int getCrc() {
+            return crc;
+        }
+
+        public long getCompressedSize() {
+            return compressedSize;
+        }
+
+        public long getSize() {
+            return size;
+        }
+
+        public long getLocalHeaderOffset() {
+            return localHeaderOffset;
+        }
+
+        public boolean isDirectory() {
+            return name.endsWith("/");
+        }
+
+        public boolean isEncrypted() {
+            return (flag & 1) != 0;
+        }
+
+        @Override
+        public String toString() {
+            final StringBuilder sb = new StringBuilder("Entry{");
+            sb.append("name=").append(name);
+            sb.append(", method=").append(method);
+            sb.append(", compressedSize=").append(compressedSize);
+            sb.append(", size=").append(size);
+            sb.append(", offset=").append(localHeaderOffset);
+            sb.append('}');
+            return sb.toString();
+        }
+    }
+
+    /**
+     * 压缩包数据源
+     */
+    private interface Source extends Closeable {
+        long size() throws IOException;
+
+        /**
+         * 读取指定区间，返回的缓冲区position为0
+         */
+        ByteBuffer read(long position, int length) throws IOException;
+    }
+
+    /**
+     * 缓冲区数据源，读取时返回切片不拷贝数据
+     */
+    private static final class BufferSource implements Source {
+        private final ByteBuffer buf;
+
+        BufferSource(ByteBuffer buf) {
+            this.buf = buf;
+        }
+
+        @Override
+        public long size() {
+            return buf.limit();
+        }
+
+        @Override
+        public ByteBuffer read(long position, int length) {
+            ByteBuffer dup = buf.duplicate();
+            dup.limit((int) position + length);
+            dup.position((int) position);
+            return dup.slice();
+        }
+
+        @Override
+        public void close() {
+        }
+    }
+
+    /**
+     * 通道数据源，定位与读取在通道上加锁执行
+     */
+    private static final class ChannelSource implements Source {
+        private final SeekableByteChannel channel;
+        private final boolean closeable; // 关闭读取器时是否关闭通道
+
+        ChannelSource(SeekableByteChannel channel) {
+            this(channel, false);
+        }
+
+        ChannelSource(FileChannel channel) {
+            this(channel, true);
+        }
+
+        private ChannelSource(SeekableByteChannel channel, boolean closeable) {
+            this.channel = channel;
+            this.closeable = closeable;
+        }
+
+        @Override
+        public long size() throws IOException {
+            return channel.size();
+        }
+
+        @Override
+        public ByteBuffer read(long position, int length) throws IOException {
+            ByteBuffer buf = ByteBuffer.allocate(length);
+            if (channel instanceof FileChannel) {
+                FileChannel fc = (FileChannel) channel;
+                while (buf.hasRemaining()) {
+                    if (fc.read(buf, position + buf.position()) < 0) {
+                        throw new EOFException();
+                    }
+                }
+            } else {
+                synchronized (channel) {
+                    channel.position(position);
+                    while (buf.hasRemaining()) {
+                        if (channel.read(buf) < 0) {
+                            throw new EOFException();
+                        }
+                    }
+                }
+            }
+            buf.flip();
+            return buf;
+        }
+
+        @Override
+        public void close() throws IOException {
+            if (closeable) {
+                channel.close();
+            }
+        }
+    }
+}
@@ -5,8 +5,23 @@ import org.slf4j.LoggerFactory;
 
 import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.zip.*;
 
 /**
@@ -19,73 +34,817 @@ import java.util.zip.*;
 public class ZipUtil {
     private static final Logger LOGGER = LoggerFactory.getLogger(ZipUtil.class);
 
+    private static final int POOL_SIZE = Runtime.getRuntime().availableProcessors() * 4; // 每种上下文最多缓存的数量
+    private static final int BUFFER_SIZE = 16 * 1024; // 上下文输出缓冲区大小
+    private static final long MAX_INFLATE_RATIO = 1032L; // deflate的最大压缩比
+    private static final int DEFLATE_WINDOW_SIZE = 32 * 1024; // deflate窗口大小
+    private static final int PARALLEL_BLOCK_SIZE = 1024 * 1024; // 并行压缩默认分块大小
+    private static final int PARALLEL_MIN_BLOCK_SIZE = 64 * 1024; // 并行压缩最小分块大小
+
+    private static final MethodHandle DEFLATER_SET_INPUT; // JDK11+ Deflater.setInput(ByteBuffer)
+    private static final MethodHandle DEFLATER_DEFLATE; // JDK11+ Deflater.deflate(ByteBuffer)
+    private static final MethodHandle INFLATER_SET_INPUT; // JDK11+ Inflater.setInput(ByteBuffer)
+    private static final MethodHandle INFLATER_INFLATE; // JDK11+ Inflater.inflate(ByteBuffer)
+
+    static {
+        MethodHandle deflaterSetInput = null;
+        MethodHandle deflate = null;
+        MethodHandle inflaterSetInput = null;
+        MethodHandle inflate = null;
+        try {
+            MethodHandles.Lookup lookup = MethodHandles.publicLookup();
+            deflaterSetInput = lookup.findVirtual(Deflater.class, "setInput", MethodType.methodType(void.class, ByteBuffer.class));
+            deflate = lookup.findVirtual(Deflater.class, "deflate", MethodType.methodType(int.class, ByteBuffer.class));
+            inflaterSetInput = lookup.findVirtual(Inflater.class, "setInput", MethodType.methodType(void.class, ByteBuffer.class));
+            inflate = lookup.findVirtual(Inflater.class, "inflate", MethodType.methodType(int.class, ByteBuffer.class));
+        } catch (Exception e) {
+            if (LOGGER.isDebugEnabled()) {
+                LOGGER.debug("当前JDK不支持ByteBuffer压缩接口: {}", e.getMessage());
+            }
+            deflaterSetInput = deflate = inflaterSetInput = inflate = null;
+        }
+        DEFLATER_SET_INPUT = deflaterSetInput;
+        DEFLATER_DEFLATE = deflate;
+        INFLATER_SET_INPUT = inflaterSetInput;
+        INFLATER_INFLATE = inflate;
+    }
+
+    private static final Queue<DeflateContext> DEFLATERS = new ConcurrentLinkedQueue<>(); // 压缩上下文池
+    private static final AtomicInteger DEFLATER_COUNT = new AtomicInteger(); // 压缩上下文池中的数量
+    private static final Queue<InflateContext> INFLATERS = new ConcurrentLinkedQueue<>(); // 解压上下文池
+    private static final AtomicInteger INFLATER_COUNT = new AtomicInteger(); // 解压上下文池中的数量
+
+    /**
+     * 压缩上下文，复用zlib压缩流与输出缓冲区
+     */
+    static final class DeflateContext {
+        final Deflater deflater = new Deflater();
+        final byte[] buf = new byte[BUFFER_SIZE];
+        private int level = Deflater.DEFAULT_COMPRESSION; // 当前压缩级别
+        private int strategy = Deflater.DEFAULT_STRATEGY; // 当前压缩策略
+
+        /**
+         * 设置压缩级别与策略，与当前值相同时不做处理，在下一次压缩时生效
+         */
+        void configure(int level, int strategy) {
+            if (this.level != level) {
+                deflater.setLevel(level);
+                this.level = level;
+            }
+            if (this.strategy != strategy) {
+                deflater.setStrategy(strategy);
+                this.strategy = strategy;
+            }
+        }
+    }
+
+    /**
+     * 解压上下文，复用zlib解压流与输出缓冲区
+     */
+    static final class InflateContext {
+        final Inflater inflater = new Inflater();
+        final byte[] buf = new byte[BUFFER_SIZE];
+    }
+
+    /**
+     * 从池中获取压缩上下文，池为空时创建，不依赖ThreadLocal，虚拟线程同样复用
+     */
+    static DeflateContext acquireDeflater() {
+        DeflateContext context = DEFLATERS.poll();
+        if (context != null) {
+            DEFLATER_COUNT.decrementAndGet();
+            return context;
+        }
+        return new DeflateContext();
+    }
+
+    /**
+     * 归还压缩上下文，重置后放回池中，池已满或使用过程中出现异常时释放zlib流
+     */
+    static void releaseDeflater(DeflateContext context, boolean reusable) {
+        Deflater deflater = context.deflater;
+        if (reusable && DEFLATER_COUNT.incrementAndGet() <= POOL_SIZE) {
+            deflater.reset();
+            context.configure(Deflater.DEFAULT_COMPRESSION, Deflater.DEFAULT_STRATEGY); // 恢复默认级别与策略
+            DEFLATERS.offer(context);
+            return;
+        }
+        if (reusable) {
+            DEFLATER_COUNT.decrementAndGet();
+        }
+        deflater.end();
+    }
+
+    /**
+     * 从池中获取解压上下文，池为空时创建
+     */
+    static InflateContext acquireInflater() {
+        InflateContext context = INFLATERS.poll();
+        if (context != null) {
+            INFLATER_COUNT.decrementAndGet();
+            return context;
+        }
+        return new InflateContext();
+    }
+
+    /**
+     * 归还解压上下文，重置后放回池中，池已满或使用过程中出现异常时释放zlib流
+     */
+    static void releaseInflater(InflateContext context, boolean reusable) {
+        Inflater inflater = context.inflater;
+        if (reusable && INFLATER_COUNT.incrementAndGet() <= POOL_SIZE) {
+            inflater.reset();
+            INFLATERS.offer(context);
+            return;
+        }
+        if (reusable) {
+            INFLATER_COUNT.decrementAndGet();
+        }
+        inflater.end();
+    }
+
     /**
      * 解压zip压缩数据
      */
     public static byte[] decompress(byte[] data) {
         if (data != null && data.length > 0) {
-            Inflater decompress = new Inflater();
-            try (ByteArrayOutputStream os = new ByteArrayOutputStream()) {
+            InflateContext context = acquireInflater();
+            boolean reusable = false;
+            try {
+                Inflater decompress = context.inflater;
                 decompress.setInput(data); // 需要解压的数据
-                byte[] buf = new byte[1024];
-                do {
-                    // 未读取完成则循环写入内存
-                    int len = decompress.inflate(buf);
-                    if (len == 0) {
-                        // TODO 解压数据不完整
-                        break;
-                    }
-                    os.write(buf, 0, len);
-                } while (!decompress.finished());
-                return os.toByteArray();
+                byte[] result = inflate(decompress, context.buf);
+                reusable = true;
+                return result;
             } catch (Exception e) {
                 if (LOGGER.isErrorEnabled()) {
                     LOGGER.error("解压zip数据失败：{}", e.getMessage());
                 }
                 throw new RuntimeException("解压zip数据失败!", e);
             } finally {
-                try {
-                    decompress.end();
-                } catch (Exception e) {
-                    throw new RuntimeException(e.getMessage(), e);
+                releaseInflater(context, reusable);
+            }
+        }
+        return data;
+    }
+
+    /**
+     * 解压到上下文缓冲区，缓冲区足够时只分配一次结果数组，否则溢出部分写入内存流
+     */
+    private static byte[] inflate(Inflater decompress, byte[] buf) throws DataFormatException {
+        int n = 0;
+        while (n < buf.length && !decompress.finished()) {
+            int len = decompress.inflate(buf, n, buf.length - n);
+            if (len == 0) {
+                if (setDictionary(decompress)) {
+                    continue;
                 }
+                throw truncated(decompress);
             }
+            n += len;
+        }
+        if (decompress.finished()) {
+            return Arrays.copyOf(buf, n);
+        }
+        ByteArrayOutputStream os = new ByteArrayOutputStream(buf.length << 1);
+        os.write(buf, 0, n);
+        do {
+            // 未读取完成则循环写入内存
+            int len = decompress.inflate(buf);
+            if (len == 0) {
+                if (setDictionary(decompress)) {
+                    continue;
+                }
+                throw truncated(decompress);
+            }
+            os.write(buf, 0, len);
+        } while (!decompress.finished());
+        return os.toByteArray();
+    }
+
+    /**
+     * 没有输出且不需要字典时压缩流仍未结束，说明输入已耗尽，压缩数据被截断
+     */
+    private static DataFormatException truncated(Inflater decompress) {
+        return new DataFormatException(decompress.needsInput() ? "压缩数据不完整" : "解压数据失败");
+    }
+
+    /**
+     * 按预期长度解压zip压缩数据，直接解压到结果数组，解压后数据超过预期长度时立即失败
+     *
+     * @param expectedSize 解压后数据的预期长度，如命令中的unzipDataLength
+     * @return 解压后的数据，实际长度小于预期长度时返回实际长度；压缩数据被截断时失败
+     */
+    public static byte[] decompress(byte[] data, int expectedSize) {
+        if (data != null && data.length > 0) {
+            checkExpectedSize(data.length, expectedSize);
+            byte[] result = new byte[expectedSize];
+            int n = decompress(data, result, 0, expectedSize);
+            return n == expectedSize ? result : Arrays.copyOf(result, n);
         }
         return data;
     }
 
+    /**
+     * 解压zip压缩数据到目标数组，解压后数据超过length或压缩数据被截断时失败
+     *
+     * @return 解压后的数据长度
+     */
+    public static int decompress(byte[] data, byte[] dst, int offset, int length) {
+        if (data == null || data.length == 0) {
+            return 0;
+        }
+        InflateContext context = acquireInflater();
+        boolean reusable = false;
+        try {
+            Inflater decompress = context.inflater;
+            decompress.setInput(data); // 需要解压的数据
+            int n = inflate(context, dst, offset, length);
+            reusable = true;
+            return n;
+        } catch (Exception e) {
+            if (LOGGER.isErrorEnabled()) {
+                LOGGER.error("解压zip数据失败：{}", e.getMessage());
+            }
+            throw new RuntimeException("解压zip数据失败!", e);
+        } finally {
+            releaseInflater(context, reusable);
+        }
+    }
+
+    /**
+     * 解压zip压缩数据到目标缓冲区的position位置，解压后数据超过缓冲区剩余空间时立即失败
+     *
+     * @return 解压后的数据长度，缓冲区position相应后移
+     */
+    public static int decompress(byte[] data, ByteBuffer dst) {
+        if (data == null || data.length == 0) {
+            return 0;
+        }
+        return decompress(ByteBuffer.wrap(data), dst);
+    }
+
+    /**
+     * 解压src的position到limit部分到dst的position位置，支持堆外缓冲区，解压后数据超过dst剩余空间时立即失败
+     * <p>
+     * JDK11及以上直接使用Inflater的ByteBuffer接口，不经过堆内数组；低版本JDK堆外输入先拷贝到堆内，堆外输出经上下文缓冲区中转
+     *
+     * @return 解压后的数据长度，src的position移动到已消费位置，dst的position相应后移
+     */
+    public static int decompress(ByteBuffer src, ByteBuffer dst) {
+        if (!src.hasRemaining()) {
+            return 0;
+        }
+        InflateContext context = acquireInflater();
+        boolean reusable = false;
+        try {
+            Inflater decompress = context.inflater;
+            int n;
+            if (INFLATER_SET_INPUT != null) {
+                setInput(decompress, src); // 解压时src的position随之移动
+                n = inflate(context, dst);
+            } else {
+                int remaining = src.remaining();
+                if (src.hasArray()) {
+                    decompress.setInput(src.array(), src.arrayOffset() + src.position(), remaining);
+                } else {
+                    byte[] in = new byte[remaining];
+                    src.duplicate().get(in);
+                    decompress.setInput(in);
+                }
+                n = inflate(context, dst);
+                src.position(src.position() + remaining - decompress.getRemaining());
+            }
+            checkFinished(context, n);
+            reusable = true;
+            return n;
+        } catch (Exception e) {
+            if (LOGGER.isErrorEnabled()) {
+                LOGGER.error("解压zip数据失败：{}", e.getMessage());
+            }
+            throw new RuntimeException("解压zip数据失败!", e);
+        } finally {
+            releaseInflater(context, reusable);
+        }
+    }
+
+    /**
+     * 解压到目标缓冲区直到填满或压缩流结束
+     */
+    private static int inflate(InflateContext context, ByteBuffer dst) throws DataFormatException {
+        Inflater decompress = context.inflater;
+        if (dst.hasArray()) {
+            int n = inflate(decompress, dst.array(), dst.arrayOffset() + dst.position(), dst.remaining());
+            dst.position(dst.position() + n);
+            return n;
+        }
+        int n = 0;
+        while (dst.hasRemaining() && !decompress.finished()) {
+            int len;
+            if (INFLATER_INFLATE != null) {
+                len = inflate(decompress, dst);
+            } else {
+                // 堆外缓冲区经上下文缓冲区中转
+                byte[] buf = context.buf;
+                len = decompress.inflate(buf, 0, Math.min(buf.length, dst.remaining()));
+                dst.put(buf, 0, len);
+            }
+            if (len == 0) {
+                if (setDictionary(decompress)) {
+                    continue;
+                }
+                throw truncated(decompress);
+            }
+            n += len;
+        }
+        return n;
+    }
+
+    /**
+     * 解压到目标数组，填满后仍有输出则说明超过预期长度
+     */
+    private static int inflate(InflateContext context, byte[] dst, int offset, int length) throws DataFormatException {
+        int n = inflate(context.inflater, dst, offset, length);
+        checkFinished(context, n);
+        return n;
+    }
+
+    private static int inflate(Inflater decompress, byte[] dst, int offset, int length) throws DataFormatException {
+        int n = 0;
+        while (n < length && !decompress.finished()) {
+            int len = decompress.inflate(dst, offset + n, length - n);
+            if (len == 0) {
+                if (setDictionary(decompress)) {
+                    continue;
+                }
+                throw truncated(decompress);
+            }
+            n += len;
+        }
+        return n;
+    }
+
+    /**
+     * 以输入流的形式解压zip压缩数据，边读边解压，可直接交给JSON解析器，解压后的数据不在内存中整体驻留
+     * <p>
+     * 输入流占用池中的解压上下文，使用完毕必须关闭；压缩流需要预置字典时自动设置已注册的字典
+     */
+    public static InflateStream inflateStream(byte[] data) {
+        return inflateStream(data, 0, data.length);
+    }
+
+    /**
+     * 以输入流的形式解压data的[offset, offset + length)部分
+     */
+    public static InflateStream inflateStream(byte[] data, int offset, int length) {
+        InflateContext context = acquireInflater();
+        context.inflater.setInput(data, offset, length);
+        return new InflateStream(context);
+    }
+
+    /**
+     * 以输入流的形式解压src的position到limit部分，不改变src的position
+     * <p>
+     * JDK11及以上堆外或只读缓冲区直接作为Inflater的输入；低版本JDK先拷贝到堆内
+     */
+    public static InflateStream inflateStream(ByteBuffer src) {
+        if (src.hasArray()) {
+            return inflateStream(src.array(), src.arrayOffset() + src.position(), src.remaining());
+        }
+        InflateContext context = acquireInflater();
+        if (INFLATER_SET_INPUT != null) {
+            setInput(context.inflater, src.duplicate());
+        } else {
+            byte[] in = new byte[src.remaining()];
+            src.duplicate().get(in);
+            context.inflater.setInput(in);
+        }
+        return new InflateStream(context);
+    }
+
+    /**
+     * 解压输入流，每次read直接解压到调用方的数组，不经过中间缓冲区；非线程安全
+     */
+    public static final class InflateStream extends InputStream {
+        private InflateContext context; // 关闭后为null
+        private IOException error; // 解压失败的原因
+        private byte[] single; // read()使用
+
+        private InflateStream(InflateContext context) {
+            this.context = context;
+        }
+
+        @Override
+        public int read() throws IOException {
+            if (single == null) {
+                single = new byte[1];
+            }
+            return read(single, 0, 1) == -1 ? -1 : single[0] & 0xFF;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            if (context == null) {
+                throw new IOException("解压流已关闭!");
+            }
+            if (len == 0) {
+                return 0;
+            }
+            Inflater decompress = context.inflater;
+            try {
+                int n;
+                while ((n = decompress.inflate(b, off, len)) == 0) {
+                    if (decompress.finished()) {
+                        return -1;
+                    }
+                    if (!setDictionary(decompress) && decompress.needsInput()) {
+                        error = new EOFException("压缩数据不完整");
+                        throw error;
+                    }
+                }
+                return n;
+            } catch (DataFormatException e) {
+                error = new ZipException(e.getMessage());
+                error.initCause(e);
+                throw error;
+            }
+        }
+
+        /**
+         * 解压并丢弃剩余数据直到压缩流结束，使压缩流末尾的adler32得到校验，失败原因通过getError获取
+         */
+        public void drain() {
+            if (context == null || error != null) {
+                return;
+            }
+            byte[] buf = context.buf;
+            try {
+                while (read(buf, 0, buf.length) != -1) {
+                    // 丢弃
+                }
+            } catch (IOException e) {
+                if (error == null) {
+                    error = e;
+                }
+            }
+        }
+
+        /**
+         * 获取解压失败的原因，调用方(如JSON解析器)吞掉了读取异常时用于区分数据损坏与格式错误
+         *
+         * @return 未失败时返回null
+         */
+        public IOException getError() {
+            return error;
+        }
+
+        /**
+         * 归还解压上下文，未读完的数据直接丢弃
+         */
+        @Override
+        public void close() {
+            if (context != null) {
+                releaseInflater(context, error == null);
+                context = null;
+            }
+        }
+    }
+
+    /**
+     * 压缩流需要预置字典时，根据流中的字典ID设置已注册的字典
+     *
+     * @return 是否设置了字典
+     */
+    private static boolean setDictionary(Inflater decompress) throws DataFormatException {
+        if (!decompress.needsDictionary()) {
+            return false;
+        }
+        int id = decompress.getAdler(); // 需要字典时返回字典ID
+        ZipDictionary dictionary = ZipDictionary.get(id);
+        if (dictionary == null) {
+            throw new DataFormatException(String.format("未注册的压缩字典: %08x", id));
+        }
+        decompress.setDictionary(dictionary.data);
+        return true;
+    }
+
+    /**
+     * 目标空间已填满但压缩流未结束时，尝试再解压1字节，有输出则失败，避免解压炸弹；没有输出且仍未结束说明压缩流结尾被截断
+     */
+    private static void checkFinished(InflateContext context, int n) throws DataFormatException {
+        Inflater decompress = context.inflater;
+        if (decompress.finished()) {
+            return;
+        }
+        if (!decompress.needsInput() && decompress.inflate(context.buf, 0, 1) > 0) {
+            throw new DataFormatException(String.format("解压数据超过预期长度: %d", n));
+        }
+        if (!decompress.finished()) {
+            throw truncated(decompress);
+        }
+    }
+
+    /**
+     * deflate最大压缩比约为1032:1，预期长度超过压缩数据可能解压出的最大长度时视为非法
+     */
+    private static void checkExpectedSize(int compressedSize, int expectedSize) {
+        if (expectedSize < 0 || expectedSize > compressedSize * MAX_INFLATE_RATIO + 64L) {
+            throw new IllegalArgumentException(String.format("解压数据预期长度不合法: %d", expectedSize));
+        }
+    }
+
     /**
      * zip压缩数据
      */
     public static byte[] compress(byte[] data) {
+        return compress(data, null);
+    }
+
+    /**
+     * 使用预置字典zip压缩数据，字典ID写入压缩流头部，解压端需注册相同字典
+     *
+     * @param dictionary 预置字典，为null时不使用字典
+     */
+    public static byte[] compress(byte[] data, ZipDictionary dictionary) {
+        return compress(data, Deflater.DEFAULT_COMPRESSION, Deflater.DEFAULT_STRATEGY, dictionary);
+    }
+
+    /**
+     * 按指定压缩级别与策略zip压缩数据
+     *
+     * @param level      压缩级别，如Deflater.BEST_SPEED
+     * @param strategy   压缩策略，如Deflater.HUFFMAN_ONLY
+     * @param dictionary 预置字典，为null时不使用字典
+     */
+    public static byte[] compress(byte[] data, int level, int strategy, ZipDictionary dictionary) {
         if (data != null && data.length > 0) {
-            Deflater compress = new Deflater();
-            try (ByteArrayOutputStream os = new ByteArrayOutputStream()) {
+            DeflateContext context = acquireDeflater();
+            boolean reusable = false;
+            try {
+                context.configure(level, strategy);
+                Deflater compress = context.deflater;
+                if (dictionary != null) {
+                    compress.setDictionary(dictionary.data);
+                }
                 compress.setInput(data); // 需要压缩的数据
                 compress.finish(); // 压缩到缓冲区结尾
-                byte[] buf = new byte[1024];
-                do {
-                    // 未读取完成则循环写入内存
-                    int len = compress.deflate(buf);
-                    os.write(buf, 0, len);
-                } while (!compress.finished());
-                return os.toByteArray();
+                byte[] result = deflate(compress, context.buf);
+                reusable = true;
+                return result;
             } catch (Exception e) {
                 if (LOGGER.isErrorEnabled()) {
                     LOGGER.error("压缩zip数据失败：{}", e.getMessage());
                 }
                 throw new RuntimeException("压缩数据失败!", e);
             } finally {
-                try {
-                    compress.end();
-                } catch (Exception e) {
-                    throw new RuntimeException(e.getMessage(), e);
-                }
+                releaseDeflater(context, reusable);
             }
         }
         return data;
     }
 
+    /**
+     * 压缩到上下文缓冲区，缓冲区足够时只分配一次结果数组，否则溢出部分写入内存流
+     */
+    private static byte[] deflate(Deflater compress, byte[] buf) {
+        int n = 0;
+        while (n < buf.length && !compress.finished()) {
+            n += compress.deflate(buf, n, buf.length - n);
+        }
+        if (compress.finished()) {
+            return Arrays.copyOf(buf, n);
+        }
+        ByteArrayOutputStream os = new ByteArrayOutputStream(buf.length << 1);
+        os.write(buf, 0, n);
+        do {
+            // 未读取完成则循环写入内存
+            int len = compress.deflate(buf);
+            os.write(buf, 0, len);
+        } while (!compress.finished());
+        return os.toByteArray();
+    }
+
+    /**
+     * zip压缩src的position到limit部分到dst的position位置，支持堆外缓冲区，dst剩余空间不足时失败
+     * <p>
+     * JDK11及以上直接使用Deflater的ByteBuffer接口，不经过堆内数组；低版本JDK堆外输入先拷贝到堆内，堆外输出经上下文缓冲区中转
+     *
+     * @return 压缩后的数据长度，src的position移动到limit，dst的position相应后移
+     * @see #compressBound(int)
+     */
+    public static int compress(ByteBuffer src, ByteBuffer dst) {
+        if (!src.hasRemaining()) {
+            return 0;
+        }
+        DeflateContext context = acquireDeflater();
+        boolean reusable = false;
+        try {
+            Deflater compress = context.deflater;
+            int remaining = src.remaining();
+            if (DEFLATER_SET_INPUT != null) {
+                setInput(compress, src); // 压缩时src的position随之移动
+            } else if (src.hasArray()) {
+                compress.setInput(src.array(), src.arrayOffset() + src.position(), remaining);
+            } else {
+                byte[] in = new byte[remaining];
+                src.duplicate().get(in);
+                compress.setInput(in);
+            }
+            compress.finish(); // 压缩到缓冲区结尾
+            int n = 0;
+            while (!compress.finished()) {
+                if (!dst.hasRemaining()) {
+                    throw new IllegalStateException(String.format("压缩目标缓冲区空间不足: %d", n));
+                }
+                int len;
+                if (dst.hasArray()) {
+                    len = compress.deflate(dst.array(), dst.arrayOffset() + dst.position(), dst.remaining());
+                    dst.position(dst.position() + len);
+                } else if (DEFLATER_DEFLATE != null) {
+                    len = deflate(compress, dst);
+                } else {
+                    // 堆外缓冲区经上下文缓冲区中转
+                    byte[] buf = context.buf;
+                    len = compress.deflate(buf, 0, Math.min(buf.length, dst.remaining()));
+                    dst.put(buf, 0, len);
+                }
+                n += len;
+            }
+            if (DEFLATER_SET_INPUT == null) {
+                src.position(src.limit());
+            }
+            reusable = true;
+            return n;
+        } catch (Exception e) {
+            if (LOGGER.isErrorEnabled()) {
+                LOGGER.error("压缩zip数据失败：{}", e.getMessage());
+            }
+            throw new RuntimeException("压缩数据失败!", e);
+        } finally {
+            releaseDeflater(context, reusable);
+        }
+    }
+
+    /**
+     * 压缩sourceLen字节数据后的最大长度，与zlib的compressBound一致，用于预先分配压缩目标缓冲区
+     */
+    public static int compressBound(int sourceLen) {
+        return sourceLen + (sourceLen >>> 12) + (sourceLen >>> 14) + (sourceLen >>> 25) + 13;
+    }
+
+    private static void setInput(Deflater deflater, ByteBuffer src) {
+        try {
+            DEFLATER_SET_INPUT.invokeExact(deflater, src);
+        } catch (RuntimeException | Error e) {
+            throw e;
+        } catch (Throwable e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static int deflate(Deflater deflater, ByteBuffer dst) {
+        try {
+            return (int) DEFLATER_DEFLATE.invokeExact(deflater, dst);
+        } catch (RuntimeException | Error e) {
+            throw e;
+        } catch (Throwable e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static void setInput(Inflater inflater, ByteBuffer src) {
+        try {
+            INFLATER_SET_INPUT.invokeExact(inflater, src);
+        } catch (RuntimeException | Error e) {
+            throw e;
+        } catch (Throwable e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static int inflate(Inflater inflater, ByteBuffer dst) throws DataFormatException {
+        try {
+            return (int) INFLATER_INFLATE.invokeExact(inflater, dst);
+        } catch (RuntimeException | Error | DataFormatException e) {
+            throw e;
+        } catch (Throwable e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * 并行分块zip压缩，适用于固件包、数据文件备份等大数据，输出仍为标准zlib格式，可直接使用decompress解压
+     * <p>
+     * 参考pigz，数据按块在ForkJoin线程池中并行压缩，每块使用前一块末尾32KB作为预置字典，压缩率接近单线程压缩；
+     * 非最后一块以SYNC_FLUSH结束并按字节对齐，各块依次拼接后加上zlib头与整体Adler32校验值。数据不足两块时退化为单线程压缩
+     *
+     * @param level     压缩级别
+     * @param blockSize 分块大小，不小于64KB
+     * @param pool      执行压缩的线程池，为null时使用ForkJoinPool.commonPool()
+     */
+    public static byte[] compressParallel(byte[] data, int level, int blockSize, ForkJoinPool pool) {
+        if (blockSize < PARALLEL_MIN_BLOCK_SIZE) {
+            throw new IllegalArgumentException(String.format("分块大小不能小于%d: %d", PARALLEL_MIN_BLOCK_SIZE, blockSize));
+        }
+        if (data == null || data.length < blockSize << 1) {
+            return compress(data, level, Deflater.DEFAULT_STRATEGY, null);
+        }
+        if (pool == null) {
+            pool = ForkJoinPool.commonPool();
+        }
+        int blocks = (data.length + blockSize - 1) / blockSize;
+        List<ForkJoinTask<byte[]>> tasks = new ArrayList<>(blocks);
+        for (int i = 0; i < blocks; i++) {
+            int offset = i * blockSize;
+            int length = Math.min(blockSize, data.length - offset);
+            boolean last = i == blocks - 1;
+            tasks.add(pool.submit(() -> deflateBlock(data, offset, length, level, last)));
+        }
+        Adler32 adler32 = new Adler32(); // 在等待各块压缩期间计算整体校验值
+        adler32.update(data, 0, data.length);
+        int checksum = (int) adler32.getValue();
+        try (ByteArrayOutputStream os = new ByteArrayOutputStream(data.length >>> 2)) {
+            int header = 0x7800 | zlibLevelFlag(level) << 6; // CMF: deflate, 32KB窗口
+            header += (31 - header % 31) % 31; // FCHECK
+            os.write(header >>> 8);
+            os.write(header & 0xFF);
+            for (ForkJoinTask<byte[]> task : tasks) {
+                byte[] block = task.join();
+                os.write(block, 0, block.length);
+            }
+            os.write(checksum >>> 24);
+            os.write(checksum >>> 16);
+            os.write(checksum >>> 8);
+            os.write(checksum);
+            return os.toByteArray();
+        } catch (Exception e) {
+            for (ForkJoinTask<byte[]> task : tasks) {
+                task.cancel(false);
+            }
+            if (LOGGER.isErrorEnabled()) {
+                LOGGER.error("并行压缩zip数据失败：{}", e.getMessage());
+            }
+            throw new RuntimeException("压缩数据失败!", e);
+        }
+    }
+
+    /**
+     * 使用默认压缩级别、1MB分块与公共线程池并行压缩
+     */
+    public static byte[] compressParallel(byte[] data) {
+        return compressParallel(data, Deflater.DEFAULT_COMPRESSION, PARALLEL_BLOCK_SIZE, null);
+    }
+
+    /**
+     * 压缩一块原始deflate数据，非第一块使用前32KB原始数据作为预置字典
+     */
+    private static byte[] deflateBlock(byte[] data, int offset, int length, int level, boolean last) {
+        Deflater deflater = new Deflater(level, true);
+        try {
+            if (offset > 0) {
+                int dictionaryLength = Math.min(offset, DEFLATE_WINDOW_SIZE);
+                deflater.setDictionary(data, offset - dictionaryLength, dictionaryLength);
+            }
+            deflater.setInput(data, offset, length);
+            byte[] buf = new byte[compressBound(length)];
+            int n = 0;
+            if (last) {
+                deflater.finish();
+                while (!deflater.finished()) {
+                    if (n == buf.length) {
+                        buf = Arrays.copyOf(buf, buf.length << 1);
+                    }
+                    n += deflater.deflate(buf, n, buf.length - n);
+                }
+            } else {
+                for (; ; ) {
+                    // SYNC_FLUSH填满输出缓冲区时需继续调用
+                    n += deflater.deflate(buf, n, buf.length - n, Deflater.SYNC_FLUSH);
+                    if (n < buf.length) {
+                        break;
+                    }
+                    buf = Arrays.copyOf(buf, buf.length << 1);
+                }
+            }
+            return Arrays.copyOf(buf, n);
+        } finally {
+            deflater.end();
+        }
+    }
+
+    /**
+     * zlib头中的压缩级别标志
+     */
+    private static int zlibLevelFlag(int level) {
+        if (level == Deflater.DEFAULT_COMPRESSION || level == 6) {
+            return 2;
+        }
+        if (level <= 1) {
+            return 0;
+        }
+        return level < 6 ? 1 : 3;
+    }
+
     /**
      * 创建zip并添加条目
      */
@@ -94,33 +853,15 @@ public class ZipUtil {
     }
 
     /**
-     * 给zip压缩包添加条目
+     * 给zip压缩包添加条目，保留原有条目，只写入新条目并重写中央目录，与原条目同名时替换
      *
      * @param zip
      * @param entries
      * @return
      */
     public static byte[] addZipEntry(byte[] zip, Map<String, byte[]> entries) {
-        try (ByteArrayOutputStream os = new ByteArrayOutputStream()) {
-            if (zip != null && zip.length > 0) {
-                os.write(zip);
-            }
-            ZipOutputStream zos = new ZipOutputStream(os);
-            if (entries != null && !entries.isEmpty()) {
-                for (Entry<String, byte[]> en : entries.entrySet()) {
-                    String name = en.getKey();
-                    byte[] data = en.getValue();
-                    try {
-                        ZipEntry entry = new ZipEntry(name);
-                        zos.putNextEntry(entry);
-                        zos.write(data); // 写入数据
-                        zos.closeEntry(); // 关闭当前条目，指向下一个条目
-                    } catch (Exception e) {
-                        throw new RuntimeException(e.getMessage(), e);
-                    }
-                }
-            }
-            return os.toByteArray();
+        try {
+            return ZipAppender.append(zip, entries);
         } catch (Exception e) {
             if (LOGGER.isErrorEnabled()) {
                 LOGGER.error("压缩zip包失败: {}", e.getMessage());
@@ -129,32 +870,63 @@ public class ZipUtil {
         }
     }
 
+    /**
+     * 读取zip包中指定条目的文本内容，条目名称忽略大小写，通过中央目录直接定位条目；没有中央目录时顺序扫描
+     */
     public static String getZipContent(byte[] zipData, String entryName) {
         if (entryName != null && !"".equals(entryName = entryName.trim())) {
-            try (ZipInputStream zip = new ZipInputStream(new ByteArrayInputStream(zipData))) {
-                for (ZipEntry en; (en = zip.getNextEntry()) != null; ) {
-                    if (entryName.equalsIgnoreCase(en.getName())) {
-                        if (!en.isDirectory()) {
-                            byte[] buffer = new byte[2048];
-                            try (ByteArrayOutputStream os = new ByteArrayOutputStream()) {
-                                for (int len; (len = zip.read(buffer)) != -1; ) {
-                                    os.write(buffer, 0, len);
-                                }
-                                return new String(os.toByteArray());
-                            } catch (Exception e) {
-                                if (LOGGER.isErrorEnabled()) {
-                                    LOGGER.error("读取ZIP的条目[{}]的内容失败: {}", entryName, e.getMessage());
-                                }
-                                return null;
-                            }
-                        }
-                    }
-                    zip.closeEntry();
-                }
+            ZipReader zip;
+            try {
+                zip = ZipReader.open(zipData);
+            } catch (ZipException e) {
+                return scanZipContent(zipData, entryName); // 没有中央目录
             } catch (Exception e) {
                 if (LOGGER.isErrorEnabled()) {
                     LOGGER.error("提取zip包条目数据失败: {}", e.getMessage());
                 }
+                return null;
+            }
+            ZipReader.Entry en = zip.getEntryIgnoreCase(entryName);
+            if (en != null && !en.isDirectory()) {
+                try {
+                    return new String(zip.read(en));
+                } catch (Exception e) {
+                    if (LOGGER.isErrorEnabled()) {
+                        LOGGER.error("读取ZIP的条目[{}]的内容失败: {}", entryName, e.getMessage());
+                    }
+                }
+            }
+        }
+        return null;
+    }
+
+    /**
+     * 按本地文件头顺序扫描读取条目的文本内容
+     */
+    private static String scanZipContent(byte[] zipData, String entryName) {
+        try (ZipInputStream zip = new ZipInputStream(new ByteArrayInputStream(zipData))) {
+            for (ZipEntry en; (en = zip.getNextEntry()) != null; ) {
+                if (entryName.equalsIgnoreCase(en.getName())) {
+                    if (!en.isDirectory()) {
+                        byte[] buffer = new byte[2048];
+                        try (ByteArrayOutputStream os = new ByteArrayOutputStream()) {
+                            for (int len; (len = zip.read(buffer)) != -1; ) {
+                                os.write(buffer, 0, len);
+                            }
+                            return new String(os.toByteArray());
+                        } catch (Exception e) {
+                            if (LOGGER.isErrorEnabled()) {
+                                LOGGER.error("读取ZIP的条目[{}]的内容失败: {}", entryName, e.getMessage());
+                            }
+                            return null;
+                        }
+                    }
+                }
+                zip.closeEntry();
+            }
+        } catch (Exception e) {
+            if (LOGGER.isErrorEnabled()) {
+                LOGGER.error("提取zip包条目数据失败: {}", e.getMessage());
             }
         }
         return null;
@@ -0,0 +1,342 @@
+package org.sj.iot.util;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+import java.util.zip.ZipException;
+
+/**
+ * 流式ZIP生成器，条目内容按块读取并直接写入输出流或通道，内存占用与条目大小无关
+ * <p>
+ * 压缩条目边读边压缩，长度与CRC32写在数据之后的数据描述符中；存储条目(适用于已压缩的内容)需要先读一遍计算CRC32，
+ * 因此只接受可重复读取的来源(Path、ByteBuffer、StreamSupplier)。中央目录在内存中累积，finish时写出，超出范围时使用ZIP64。
+ * 非线程安全
+ *
+ * @author shijian
+ * @email shijianws@163.com
+ * @date 2026-10-18
+ */
+public class ZipWriter implements Closeable {
+    private static final int BUFFER_SIZE = 64 * 1024; // 读取与压缩输出缓冲区大小
+    private static final int FLAG_DATA_DESCRIPTOR = 0x08; // 长度与CRC32写在数据描述符中
+    private static final int DATA_DESCRIPTOR_SIGNATURE = 0x08074b50;
+
+    /**
+     * 可重复打开的输入流来源
+     */
+    @FunctionalInterface
+    public interface StreamSupplier {
+        InputStream open() throws IOException;
+    }
+
+    private final OutputStream out; // 与channel二选一
+    private final WritableByteChannel channel;
+    private final Deflater deflater;
+    private final CRC32 crc32 = new CRC32();
+    private final byte[] input = new byte[BUFFER_SIZE];
+    private final byte[] output = new byte[BUFFER_SIZE];
+    private final ZipAppender.Output header = new ZipAppender.Output(512); // 文件头与数据描述符
+    private final ZipAppender.Output cd = new ZipAppender.Output(4096); // 中央目录
+    private final Set<String> names = new HashSet<>();
+    private final int dosTime = ZipAppender.dosTime(LocalDateTime.now());
+    private long position; // 已写入长度
+    private long count; // 条目数
+    private boolean finished;
+
+    public ZipWriter(OutputStream out) {
+        this(out, Deflater.DEFAULT_COMPRESSION);
+    }
+
+    public ZipWriter(OutputStream out, int level) {
+        this(out, null, level);
+    }
+
+    public ZipWriter(WritableByteChannel channel) {
+        this(channel, Deflater.DEFAULT_COMPRESSION);
+    }
+
+    public ZipWriter(WritableByteChannel channel, int level) {
+        this(null, channel, level);
+    }
+
+    private ZipWriter(OutputStream out, WritableByteChannel channel, int level) {
+        this.out = out;
+        this.channel = channel;
+        this.deflater = new Deflater(level, true);
+    }
+
+    /**
+     * 添加压缩条目，读取到流结束，不关闭流
+     */
+    public ZipWriter add(String name, InputStream in) throws IOException {
+        byte[] nameBytes = begin(name);
+        long offset = position;
+        writeLocalHeader(nameBytes, ZipReader.Entry.DEFLATED, 0, 0, 0);
+        crc32.reset();
+        deflater.reset();
+        long size = 0;
+        for (int len; (len = in.read(input)) != -1; ) {
+            if (len > 0) {
+                crc32.update(input, 0, len);
+                size += len;
+                deflater.setInput(input, 0, len);
+                while (!deflater.needsInput()) {
+                    deflate();
+                }
+            }
+        }
+        deflater.finish();
+        while (!deflater.finished()) {
+            deflate();
+        }
+        end(nameBytes, ZipReader.Entry.DEFLATED, (int) crc32.getValue(), deflater.getBytesWritten(), size, offset);
+        return this;
+    }
+
+    private void deflate() throws IOException {
+        int len = deflater.deflate(output, 0, output.length);
+        if (len > 0) {
+            write(output, 0, len);
+        }
+    }
+
+    /**
+     * 添加压缩条目
+     */
+    public ZipWriter add(String name, Path path) throws IOException {
+        return add(name, path, false);
+    }
+
+    /**
+     * 添加文件条目
+     *
+     * @param stored 是否不压缩直接存储，适用于已压缩的内容
+     */
+    public ZipWriter add(String name, Path path, boolean stored) throws IOException {
+        return add(name, () -> Files.newInputStream(path), stored);
+    }
+
+    /**
+     * 添加条目，存储条目会打开两次输入流
+     *
+     * @param stored 是否不压缩直接存储，适用于已压缩的内容
+     */
+    public ZipWriter add(String name, StreamSupplier supplier, boolean stored) throws IOException {
+        if (!stored) {
+            try (InputStream in = supplier.open()) {
+                return add(name, in);
+            }
+        }
+        crc32.reset();
+        long size = 0;
+        try (InputStream in = supplier.open()) {
+            for (int len; (len = in.read(input)) != -1; ) {
+                crc32.update(input, 0, len);
+                size += len;
+            }
+        }
+        int crc = (int) crc32.getValue();
+        byte[] nameBytes = begin(name);
+        long offset = position;
+        writeLocalHeader(nameBytes, ZipReader.Entry.STORED, crc, size, size);
+        crc32.reset();
+        long written = 0;
+        try (InputStream in = supplier.open()) {
+            for (int len; (len = in.read(input)) != -1; ) {
+                crc32.update(input, 0, len);
+                written += len;
+                write(input, 0, len);
+            }
+        }
+        if (written != size || (int) crc32.getValue() != crc) {
+            throw new ZipException(String.format("条目[%s]的内容在写入过程中发生变化!", name));
+        }
+        end(nameBytes, ZipReader.Entry.STORED, crc, size, size, offset);
+        return this;
+    }
+
+    /**
+     * 添加压缩条目，读取缓冲区position到limit部分，不改变缓冲区position
+     */
+    public ZipWriter add(String name, ByteBuffer data) throws IOException {
+        return add(name, data, false);
+    }
+
+    /**
+     * 添加条目，读取缓冲区position到limit部分，不改变缓冲区position
+     *
+     * @param stored 是否不压缩直接存储，适用于已压缩的内容
+     */
+    public ZipWriter add(String name, ByteBuffer data, boolean stored) throws IOException {
+        data = data.duplicate();
+        int size = data.remaining();
+        crc32.reset();
+        crc32.update(data.duplicate());
+        int crc = (int) crc32.getValue();
+        byte[] nameBytes = begin(name);
+        long offset = position;
+        if (stored) {
+            writeLocalHeader(nameBytes, ZipReader.Entry.STORED, crc, size, size);
+            write(data);
+            end(nameBytes, ZipReader.Entry.STORED, crc, size, size, offset);
+            return this;
+        }
+        writeLocalHeader(nameBytes, ZipReader.Entry.DEFLATED, 0, 0, 0);
+        deflater.reset();
+        if (data.hasArray()) {
+            deflater.setInput(data.array(), data.arrayOffset() + data.position(), size);
+            while (!deflater.needsInput()) {
+                deflate();
+            }
+        } else {
+            while (data.hasRemaining()) {
+                int len = Math.min(data.remaining(), input.length);
+                data.get(input, 0, len);
+                deflater.setInput(input, 0, len);
+                while (!deflater.needsInput()) {
+                    deflate();
+                }
+            }
+        }
+        deflater.finish();
+        while (!deflater.finished()) {
+            deflate();
+        }
+        end(nameBytes, ZipReader.Entry.DEFLATED, crc, deflater.getBytesWritten(), size, offset);
+        return this;
+    }
+
+    /**
+     * 添加目录条目，名称不以/结尾时自动补上
+     */
+    public ZipWriter addDirectory(String name) throws IOException {
+        byte[] nameBytes = begin(name.endsWith("/") ? name : name + "/");
+        long offset = position;
+        writeLocalHeader(nameBytes, ZipReader.Entry.STORED, 0, 0, 0);
+        end(nameBytes, ZipReader.Entry.STORED, 0, 0, 0, offset);
+        return this;
+    }
+
+    private byte[] begin(String name) throws ZipException {
+        if (finished) {
+            throw new IllegalStateException("压缩包已结束写入!");
+        }
+        if (!names.add(name)) {
+            throw new ZipException(String.format("条目名称重复: %s", name));
+        }
+        return name.getBytes(Constants.UTF8_CHARSET);
+    }
+
+    /**
+     * 写入本地文件头，压缩条目的长度与CRC32在数据描述符中给出
+     */
+    private void writeLocalHeader(byte[] name, int method, int crc, long compressedSize, long size) throws IOException {
+        boolean descriptor = method == ZipReader.Entry.DEFLATED;
+        header.reset();
+        ZipAppender.writeLocalHeader(header, name, ZipAppender.FLAG_UTF8 | (descriptor ? FLAG_DATA_DESCRIPTOR : 0), method, dosTime, crc,
+                compressedSize, size, size >= ZipAppender.ZIP64_MAGIC);
+        write(header.toByteBuffer());
+    }
+
+    /**
+     * 写入数据描述符(压缩条目)并记录中央目录文件头
+     */
+    private void end(byte[] name, int method, int crc, long compressedSize, long size, long offset) throws IOException {
+        int flag = ZipAppender.FLAG_UTF8;
+        if (method == ZipReader.Entry.DEFLATED) {
+            flag |= FLAG_DATA_DESCRIPTOR;
+            header.reset();
+            header.writeInt(DATA_DESCRIPTOR_SIGNATURE);
+            header.writeInt(crc);
+            if (compressedSize >= ZipAppender.ZIP64_MAGIC || size >= ZipAppender.ZIP64_MAGIC) {
+                header.writeLong(compressedSize);
+                header.writeLong(size);
+            } else {
+                header.writeInt((int) compressedSize);
+                header.writeInt((int) size);
+            }
+            write(header.toByteBuffer());
+        }
+        ZipAppender.writeCentralHeader(cd, name, flag, method, dosTime, crc, compressedSize, size, offset);
+        count++;
+    }
+
+    /**
+     * 写入中央目录与结束记录，不关闭输出流或通道
+     */
+    public void finish() throws IOException {
+        if (finished) {
+            return;
+        }
+        finished = true;
+        long cdOffset = position;
+        long cdSize = cd.size();
+        write(cd.toByteBuffer());
+        header.reset();
+        ZipAppender.writeEnd(header, count, cdSize, cdOffset, position);
+        write(header.toByteBuffer());
+        if (out != null) {
+            out.flush();
+        }
+    }
+
+    /**
+     * 获取已写入的长度
+     */
+    public long getPosition() {
+        return position;
+    }
+
+    private void write(byte[] bs, int off, int len) throws IOException {
+        if (out != null) {
+            out.write(bs, off, len);
+            position += len;
+        } else {
+            write(ByteBuffer.wrap(bs, off, len));
+        }
+    }
+
+    private void write(ByteBuffer buf) throws IOException {
+        if (channel != null) {
+            while (buf.hasRemaining()) {
+                position += channel.write(buf);
+            }
+        } else if (buf.hasArray()) {
+            write(buf.array(), buf.arrayOffset() + buf.position(), buf.remaining());
+            buf.position(buf.limit());
+        } else {
+            while (buf.hasRemaining()) {
+                int len = Math.min(buf.remaining(), input.length);
+                buf.get(input, 0, len);
+                write(input, 0, len);
+            }
+        }
+    }
+
+    /**
+     * 结束写入并关闭输出流或通道
+     */
+    @Override
+    public void close() throws IOException {
+        try {
+            finish();
+        } finally {
+            deflater.end();
+            if (out != null) {
+                out.close();
+            } else {
+                channel.close();
+            }
+        }
+    }
+}